@@ -0,0 +1,112 @@
+#!/usr/bin/env bash
+# Mide el tiempo hasta la primera petición atendida y la memoria residente (RSS)
+# de cada variante de arranque de la API, y comprueba que la variante AOT respeta
+# los interruptores franquicias.* pasados al arrancar.
+#
+# Uso:
+#   mvn package -Pfast-startup -DskipTests     (jar por capas + AOT + CDS)
+#   mvn -Pnative native:compile                (opcional, requiere GraalVM)
+#   scripts/startup-benchmark.sh [repeticiones]
+#
+# Variables opcionales: PORT (5055), URL_PATH (/v3/api-docs), MONGO_URI.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${PORT:-5055}"
+URL_PATH="${URL_PATH:-/v3/api-docs}"
+MONGO_URI="${MONGO_URI:-mongodb://localhost:27017/franquiciaDB}"
+JAR_NAME="franquicias-api-0.0.1-SNAPSHOT.jar"
+EXTRACTED="target/extracted"
+
+export MONGO_URI
+
+run_variant() {
+    local name="$1" workdir="$2"
+    shift 2
+    local total_ms=0 total_rss=0
+    for ((i = 1; i <= RUNS; i++)); do
+        local start end pid rss
+        start=$(date +%s%N)
+        (cd "$workdir" && exec "$@" --server.port="$PORT" >/dev/null 2>&1) &
+        pid=$!
+        until curl -sf -o /dev/null "http://localhost:${PORT}${URL_PATH}"; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$name: el proceso terminó antes de responder" >&2
+                return 1
+            fi
+            sleep 0.01
+        done
+        end=$(date +%s%N)
+        rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+        total_ms=$((total_ms + (end - start) / 1000000))
+        total_rss=$((total_rss + rss))
+    done
+    printf "%-12s %10d ms %10d MB\n" "$name" $((total_ms / RUNS)) $((total_rss / RUNS / 1024))
+}
+
+# Arranca la variante con todos los interruptores desactivados y comprueba en el log
+# que cada uno se ha leído al arrancar (con AOT, @ConditionalOnProperty quedaría fijado
+# al construir y los ignoraría).
+check_switches() {
+    local name="$1" workdir="$2"
+    shift 2
+    local switches=(
+        franquicias.indexes.ensure-on-startup=false
+        franquicias.stock-totales.reconciliacion.enabled=false
+        franquicias.tracing.enabled=false
+        franquicias.concurrency.enabled=false
+        franquicias.read-routing.enabled=false
+    )
+    local log pid args=() missing=0
+    log=$(mktemp)
+    for switch in "${switches[@]}"; do
+        args+=("--$switch")
+    done
+    (cd "$workdir" && exec "$@" --server.port="$PORT" "${args[@]}" >"$log" 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:${PORT}${URL_PATH}"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$name: el proceso terminó antes de responder" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    for switch in "${switches[@]}"; do
+        if ! grep -qF "($switch)" "$log"; then
+            echo "$name: no se respetó $switch" >&2
+            missing=1
+        fi
+    done
+    rm -f "$log"
+    if ((missing)); then
+        return 1
+    fi
+    echo "$name: interruptores franquicias.* respetados"
+}
+
+printf "%-12s %13s %13s\n" "variante" "1a petición" "RSS"
+
+run_variant "fat-jar" "target" java -jar "$JAR_NAME"
+
+if [[ -d "$EXTRACTED" ]]; then
+    run_variant "extraido" "$EXTRACTED" java -jar "$JAR_NAME"
+fi
+
+if [[ -f "$EXTRACTED/application.jsa" ]]; then
+    run_variant "aot+cds" "$EXTRACTED" java -XX:SharedArchiveFile=application.jsa \
+        -Dspring.aot.enabled=true -jar "$JAR_NAME"
+fi
+
+if [[ -d "$EXTRACTED" ]]; then
+    check_switches "aot" "$EXTRACTED" java -Dspring.aot.enabled=true -jar "$JAR_NAME"
+fi
+
+if [[ -x "target/franquicias-api" ]]; then
+    run_variant "nativo" "target" ./franquicias-api
+fi
@@ -0,0 +1,75 @@
+package com.prueba.franquicias_api.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de peticiones concurrentes ajustado con AIMD según la latencia observada.
+ * <p>
+ * Cada petición por debajo de la latencia objetivo suma {@code 1/límite} (≈ +1 por ventana) mientras
+ * el límite se esté aprovechando; una petición por encima lo multiplica por {@code factorReduccion},
+ * como mucho una vez por cada latencia objetivo para no hundirlo con una ráfaga de muestras lentas.
+ * Las peticiones que no caben se rechazan de inmediato en lugar de esperar.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final long latenciaObjetivoNanos;
+    private final double factorReduccion;
+
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private volatile double limite;
+    private long ultimaReduccion = System.nanoTime();
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties.Presupuesto presupuesto) {
+        this.limiteMinimo = presupuesto.getLimiteMinimo();
+        this.limiteMaximo = presupuesto.getLimiteMaximo();
+        this.latenciaObjetivoNanos = presupuesto.getLatenciaObjetivo().toNanos();
+        this.factorReduccion = presupuesto.getFactorReduccion();
+        this.limite = Math.max(limiteMinimo, Math.min(limiteMaximo, presupuesto.getLimiteInicial()));
+    }
+
+    /**
+     * @return {@code true} si la petición cabe en el límite actual; en ese caso hay que llamar
+     *         después a {@link #liberar(long)}.
+     */
+    public boolean intentarAdquirir() {
+        while (true) {
+            int actual = enVuelo.get();
+            if (actual >= (int) limite) {
+                return false;
+            }
+            if (enVuelo.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el hueco de una petición admitida y ajusta el límite con su latencia.
+     *
+     * @param latenciaNanos Duración de la petición.
+     */
+    public void liberar(long latenciaNanos) {
+        int enVueloAntes = enVuelo.getAndDecrement();
+        synchronized (this) {
+            if (latenciaNanos > latenciaObjetivoNanos) {
+                long ahora = System.nanoTime();
+                if (ahora - ultimaReduccion >= latenciaObjetivoNanos) {
+                    limite = Math.max(limiteMinimo, limite * factorReduccion);
+                    ultimaReduccion = ahora;
+                }
+            } else if (enVueloAntes * 2 >= limite) {
+                limite = Math.min(limiteMaximo, limite + 1.0 / limite);
+            }
+        }
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEnVuelo() {
+        return enVuelo.get();
+    }
+}
@@ -0,0 +1,38 @@
+package com.prueba.franquicias_api.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Activa el limitador de concurrencia ({@code franquicias.concurrency.enabled}) delante de
+ * {@code FranquiciaController}. Se ejecuta antes que el resto de filtros para rechazar sin coste.
+ * El filtro se registra siempre y se habilita según la propiedad, que así se lee al arrancar también
+ * en la imagen AOT.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitConfig.class);
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimiter(properties.getLecturas()),
+                new AdaptiveConcurrencyLimiter(properties.getEscrituras()),
+                properties.getRetryAfter());
+        FilterRegistrationBean<ConcurrencyLimitFilter> registro = new FilterRegistrationBean<>(filter);
+        registro.addUrlPatterns("/api/franquicias/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        registro.setEnabled(properties.isEnabled());
+        if (!properties.isEnabled()) {
+            log.info("Limitador de concurrencia desactivado (franquicias.concurrency.enabled=false)");
+        }
+        return registro;
+    }
+}
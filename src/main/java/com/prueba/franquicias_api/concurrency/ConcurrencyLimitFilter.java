@@ -0,0 +1,68 @@
+package com.prueba.franquicias_api.concurrency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Aplica un {@link AdaptiveConcurrencyLimiter} para lecturas (GET, HEAD, OPTIONS) y otro para
+ * escrituras. Lo que no cabe recibe 503 con {@code Retry-After} sin ocupar un hilo esperando a MongoDB.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] CUERPO_SATURADO =
+            "{\"error\":\"Servicio saturado, reintente más tarde\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final AdaptiveConcurrencyLimiter lecturas;
+    private final AdaptiveConcurrencyLimiter escrituras;
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter lecturas,
+                                  AdaptiveConcurrencyLimiter escrituras,
+                                  Duration retryAfter) {
+        this.lecturas = lecturas;
+        this.escrituras = escrituras;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = esLectura(request) ? lecturas : escrituras;
+        if (!limiter.intentarAdquirir()) {
+            rechazar(response);
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.liberar(System.nanoTime() - inicio);
+        }
+    }
+
+    private static boolean esLectura(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        return HttpMethod.GET.matches(metodo)
+                || HttpMethod.HEAD.matches(metodo)
+                || HttpMethod.OPTIONS.matches(metodo);
+    }
+
+    private void rechazar(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(CUERPO_SATURADO.length);
+        response.getOutputStream().write(CUERPO_SATURADO);
+    }
+}
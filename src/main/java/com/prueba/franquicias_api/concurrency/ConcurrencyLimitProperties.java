@@ -0,0 +1,33 @@
+package com.prueba.franquicias_api.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del limitador de concurrencia ({@code franquicias.concurrency.*}), con presupuestos
+ * independientes para lecturas y escrituras.
+ */
+@Data
+@ConfigurationProperties(prefix = "franquicias.concurrency")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Valor de la cabecera Retry-After en las respuestas 503. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private Presupuesto lecturas = new Presupuesto();
+
+    private Presupuesto escrituras = new Presupuesto();
+
+    @Data
+    public static class Presupuesto {
+        private int limiteInicial = 20;
+        private int limiteMinimo = 2;
+        private int limiteMaximo = 200;
+        private Duration latenciaObjetivo = Duration.ofMillis(250);
+        private double factorReduccion = 0.9;
+    }
+}
@@ -1,6 +1,7 @@
 package com.prueba.franquicias_api.controller;
 
 import com.prueba.franquicias_api.dto.ProductoMaxStockDTO;
+import com.prueba.franquicias_api.dto.StockTotalesDTO;
 import com.prueba.franquicias_api.model.Franquicia;
 import com.prueba.franquicias_api.model.Producto;
 import com.prueba.franquicias_api.model.Sucursal;
@@ -119,6 +120,16 @@ public class FranquiciaController {
                 .listarProductoMaxStockPorSucursal(franquiciaId);
         return ResponseEntity.ok(lista);
     }
+    /**
+     * Obtiene las unidades totales en stock de la franquicia y de cada sucursal.
+     *
+     * @param franquiciaId ID de la franquicia.
+     * @return Totales de stock de la franquicia y sus sucursales.
+     */
+    @GetMapping("/{franquiciaId}/stock-total")
+    public ResponseEntity<StockTotalesDTO> getStockTotal(@PathVariable String franquiciaId) {
+        return ResponseEntity.ok(franquiciaService.obtenerTotalesStock(franquiciaId));
+    }
     /**
      * Endpoint para actualizar el nombre de una franquicia específica.
      *
@@ -2,11 +2,13 @@ package com.prueba.franquicias_api.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Contiene la información de la sucursal y su producto de mayor stock.
  */
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class ProductoMaxStockDTO {
     private String sucursalId;
@@ -0,0 +1,15 @@
+package com.prueba.franquicias_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado de una exportación o importación de snapshot.
+ */
+@Data
+@AllArgsConstructor
+public class SnapshotResultadoDTO {
+    private long documentos;
+    /** Bytes BSON sin comprimir. */
+    private long bytes;
+}
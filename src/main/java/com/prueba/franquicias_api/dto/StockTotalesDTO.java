@@ -0,0 +1,26 @@
+package com.prueba.franquicias_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Unidades totales en stock de una franquicia y de cada una de sus sucursales.
+ */
+@Data
+@AllArgsConstructor
+public class StockTotalesDTO {
+    private String franquiciaId;
+    private String franquiciaNombre;
+    private long totalStock;
+    private List<SucursalStockDTO> sucursales;
+
+    @Data
+    @AllArgsConstructor
+    public static class SucursalStockDTO {
+        private String sucursalId;
+        private String sucursalNombre;
+        private long totalStock;
+    }
+}
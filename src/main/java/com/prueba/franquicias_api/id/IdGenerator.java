@@ -0,0 +1,14 @@
+package com.prueba.franquicias_api.id;
+
+/**
+ * Genera identificadores para las entidades embebidas (sucursales y productos).
+ * <p>
+ * Solo debe invocarse al crear entidades nuevas, nunca al deserializar documentos existentes.
+ */
+public interface IdGenerator {
+
+    /**
+     * @return Un identificador nuevo y único.
+     */
+    String nextId();
+}
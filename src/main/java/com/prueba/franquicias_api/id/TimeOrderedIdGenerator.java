@@ -0,0 +1,57 @@
+package com.prueba.franquicias_api.id;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Genera identificadores compactos (20 caracteres Crockford base32) ordenados por tiempo.
+ * <p>
+ * Estructura de 96 bits: 48 bits de milisegundos, 32 bits de nodo aleatorio por hilo
+ * y 16 bits de secuencia. El estado es local a cada hilo, por lo que no hay contención
+ * entre peticiones concurrentes, y al ser ordenables lexicográficamente los índices
+ * crecen por la derecha en lugar de insertar en posiciones aleatorias.
+ */
+@Component
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final char[] ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LONGITUD = 20;
+
+    private final ThreadLocal<Estado> estado = ThreadLocal.withInitial(Estado::new);
+
+    @Override
+    public String nextId() {
+        Estado e = estado.get();
+        long ahora = System.currentTimeMillis();
+        if (ahora > e.ultimoMillis) {
+            e.ultimoMillis = ahora;
+            e.secuencia = 0;
+        } else if (++e.secuencia > 0xFFFF) {
+            // Secuencia agotada en el mismo milisegundo (o reloj hacia atrás): cambiamos de nodo
+            e.nodo = ThreadLocalRandom.current().nextInt();
+            e.secuencia = 0;
+        }
+
+        char[] id = new char[LONGITUD];
+        codificar(e.ultimoMillis & 0xFFFF_FFFF_FFFFL, id, 0);
+        codificar(((e.nodo & 0xFFFF_FFFFL) << 16) | e.secuencia, id, LONGITUD / 2);
+        return new String(id);
+    }
+
+    /**
+     * Escribe los 50 bits menos significativos de {@code valor} como 10 caracteres base32.
+     */
+    private static void codificar(long valor, char[] destino, int desde) {
+        for (int i = desde + 9; i >= desde; i--) {
+            destino[i] = ALFABETO[(int) (valor & 0x1F)];
+            valor >>>= 5;
+        }
+    }
+
+    private static final class Estado {
+        private long ultimoMillis;
+        private int secuencia;
+        private int nodo = ThreadLocalRandom.current().nextInt();
+    }
+}
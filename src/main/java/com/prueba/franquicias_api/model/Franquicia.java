@@ -1,7 +1,9 @@
 package com.prueba.franquicias_api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -19,4 +21,18 @@ public class Franquicia {
     private String nombre;
 
     private List<Sucursal> sucursales = new ArrayList<>();
+
+    /**
+     * Suma del stock de todas las sucursales; se mantiene por deltas en cada escritura. Es
+     * {@code null} en los documentos guardados antes de existir el contador.
+     */
+    private Long totalStock;
+
+    /**
+     * Versión para el bloqueo optimista: cada escritura la incrementa y falla si el documento cambió
+     * desde que se leyó. Es {@code null} en los documentos guardados antes de existir el campo.
+     */
+    @Version
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
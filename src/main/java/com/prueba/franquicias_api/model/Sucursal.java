@@ -5,19 +5,24 @@ import lombok.*;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Sucursal {
 
-    private String id = UUID.randomUUID().toString();
+    private String id;
 
     private String nombre;
 
     private List<Producto> productos = new ArrayList<>();
 
+    /**
+     * Suma del stock de los productos; se mantiene por deltas en cada escritura. Es {@code null} en
+     * los documentos guardados antes de existir el contador.
+     */
+    private Long totalStock;
+
     public <E> Sucursal(String sucursalA, ArrayList<E> es) {
     }
 }
@@ -0,0 +1,60 @@
+package com.prueba.franquicias_api.repository;
+
+import com.prueba.franquicias_api.model.Franquicia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea al arrancar los índices declarados en {@link FranquiciaIndexes}.
+ * <p>
+ * La creación es idempotente: si el índice ya existe con la misma definición no se hace nada.
+ * Se desactiva con {@code franquicias.indexes.ensure-on-startup=false}, que se lee al arrancar (y no al
+ * construir la imagen AOT, como ocurriría con {@code @ConditionalOnProperty}).
+ */
+@Component
+public class FranquiciaIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(FranquiciaIndexInitializer.class);
+
+    private final MongoOperations mongoOperations;
+
+    @Value("${franquicias.indexes.ensure-on-startup:true}")
+    private boolean activo = true;
+
+    public FranquiciaIndexInitializer(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        if (!activo) {
+            log.info("Creación de índices desactivada (franquicias.indexes.ensure-on-startup=false)");
+            return;
+        }
+        try {
+            asegurarIndices();
+        } catch (DataAccessException ex) {
+            // Sin índices la API sigue funcionando (más lenta); no impedimos el arranque
+            log.error("No se pudieron crear los índices de franquicias", ex);
+        }
+    }
+
+    /**
+     * Crea los índices que falten en la colección de franquicias.
+     */
+    public void asegurarIndices() {
+        IndexOperations indexOps = mongoOperations.indexOps(Franquicia.class);
+        for (Index index : FranquiciaIndexes.definiciones()) {
+            String nombre = indexOps.createIndex(index);
+            log.debug("Índice asegurado: {}", nombre);
+        }
+    }
+}
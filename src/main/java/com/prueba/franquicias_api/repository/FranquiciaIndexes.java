@@ -0,0 +1,26 @@
+package com.prueba.franquicias_api.repository;
+
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.List;
+
+/**
+ * Definición en código de los índices secundarios de la colección {@code franquicias}.
+ * <p>
+ * Solo se declaran índices que use alguna consulta de producción: cada índice encarece todas las
+ * escrituras. Hoy todas las consultas de {@link FranquiciaRepository} van por {@code _id}, que MongoDB
+ * indexa siempre, así que la lista está vacía. Una consulta nueva que filtre por otro campo debe
+ * añadir aquí su índice y su caso en {@code FranquiciaRepositoryExplainTest}.
+ */
+public final class FranquiciaIndexes {
+
+    private FranquiciaIndexes() {
+    }
+
+    /**
+     * @return Índices secundarios que deben existir en la colección {@code franquicias}.
+     */
+    public static List<Index> definiciones() {
+        return List.of();
+    }
+}
@@ -3,8 +3,33 @@ package com.prueba.franquicias_api.repository;
 
 import com.prueba.franquicias_api.model.Franquicia;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
+/**
+ * Todas las consultas de este repositorio están respaldadas por un índice: el de {@code _id} o uno de
+ * {@link FranquiciaIndexes} (ver {@code FranquiciaRepositoryExplainTest}).
+ */
 @Repository
 public interface FranquiciaRepository extends MongoRepository<Franquicia, String> {
-}
\ No newline at end of file
+
+    /**
+     * Carga solo los totales de stock (sin productos), para que el coste no dependa del número de productos.
+     */
+    @Query(value = "{ '_id': ?0 }",
+            fields = "{ 'nombre': 1, 'totalStock': 1, 'sucursales.id': 1, 'sucursales.nombre': 1, 'sucursales.totalStock': 1 }")
+    Optional<Franquicia> findTotalesStockById(String id);
+
+    /**
+     * Pone a 0 la versión de un documento guardado antes de existir el campo, para que el siguiente
+     * {@code save} lo actualice con bloqueo optimista en lugar de insertarlo de nuevo.
+     *
+     * @return Número de documentos modificados (0 si ya tenía versión).
+     */
+    @Query("{ '_id': ?0, 'version': { '$exists': false } }")
+    @Update("{ '$set': { 'version': 0 } }")
+    long inicializarVersion(String id);
+}
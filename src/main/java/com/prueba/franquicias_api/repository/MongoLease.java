@@ -0,0 +1,57 @@
+package com.prueba.franquicias_api.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Concesión con caducidad guardada en MongoDB, para que una tarea periódica se ejecute en un único
+ * nodo aunque haya varias réplicas de la aplicación.
+ * <p>
+ * Cada concesión es un documento de la colección {@value #COLECCION} con su propietario y su
+ * caducidad. Un nodo la obtiene si está libre, ha caducado o ya es suyo (renovación); si otro nodo la
+ * tiene vigente, el upsert intenta insertar un {@code _id} repetido y falla.
+ */
+@Component
+public class MongoLease {
+
+    static final String COLECCION = "leases";
+
+    private final MongoOperations mongoOperations;
+    private final String propietario = UUID.randomUUID().toString();
+
+    public MongoLease(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    /**
+     * Intenta obtener o renovar la concesión.
+     *
+     * @param nombre   Nombre de la concesión (una por tarea).
+     * @param duracion Tiempo durante el que ningún otro nodo podrá obtenerla.
+     * @return {@code true} si este nodo la tiene hasta {@code ahora + duracion}.
+     */
+    public boolean adquirir(String nombre, Duration duracion) {
+        Instant ahora = Instant.now();
+        Query libreOPropia = new Query(Criteria.where("_id").is(nombre).orOperator(
+                Criteria.where("propietario").is(propietario),
+                Criteria.where("expira").lte(Date.from(ahora))));
+        Update tomar = new Update()
+                .set("propietario", propietario)
+                .set("expira", Date.from(ahora.plus(duracion)));
+        try {
+            mongoOperations.upsert(libreOPropia, tomar, COLECCION);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.prueba.franquicias_api.routing;
+
+import com.mongodb.ReadPreference;
+
+/**
+ * Preferencia de lectura de la petición en curso, asociada al hilo que la atiende.
+ * <p>
+ * Sin valor (fuera de una petición o en endpoints no configurados) se lee del primario.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<ReadPreference> ACTUAL = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * @return La preferencia de lectura del hilo actual, o {@code null} si se usa la del cliente.
+     */
+    public static ReadPreference actual() {
+        return ACTUAL.get();
+    }
+
+    static void usar(ReadPreference preferencia) {
+        ACTUAL.set(preferencia);
+    }
+
+    static void limpiar() {
+        ACTUAL.remove();
+    }
+}
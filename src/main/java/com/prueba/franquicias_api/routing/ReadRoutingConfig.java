@@ -0,0 +1,69 @@
+package com.prueba.franquicias_api.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Activa el enrutado de lecturas por endpoint ({@code franquicias.read-routing.enabled}). La propiedad
+ * se consulta al registrar el interceptor, así que también se respeta en la imagen AOT. El arranque
+ * falla si alguna ruta configurada no corresponde a ningún endpoint.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadRoutingProperties.class)
+public class ReadRoutingConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadRoutingConfig.class);
+
+    private final ReadRoutingProperties properties;
+    private ReadRoutingInterceptor interceptor;
+
+    public ReadRoutingConfig(ReadRoutingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!properties.isEnabled()) {
+            log.info("Enrutado de lecturas desactivado (franquicias.read-routing.enabled=false)");
+            return;
+        }
+        interceptor = new ReadRoutingInterceptor(properties);
+        registry.addInterceptor(interceptor).addPathPatterns("/api/franquicias/**");
+    }
+
+    @EventListener
+    public void validarRutas(ContextRefreshedEvent event) {
+        if (interceptor == null) {
+            return;
+        }
+        RequestMappingHandlerMapping mapping = event.getApplicationContext()
+                .getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+        interceptor.validarRutas(rutas(mapping));
+    }
+
+    /**
+     * @return Las rutas de todos los endpoints, con el formato {@code METODO /patron}.
+     */
+    static Set<String> rutas(RequestMappingHandlerMapping mapping) {
+        Set<String> rutas = new HashSet<>();
+        for (RequestMappingInfo info : mapping.getHandlerMethods().keySet()) {
+            for (var metodo : info.getMethodsCondition().getMethods()) {
+                for (String patron : info.getPatternValues()) {
+                    rutas.add(metodo.name() + " " + patron);
+                }
+            }
+        }
+        return rutas;
+    }
+}
@@ -0,0 +1,93 @@
+package com.prueba.franquicias_api.routing;
+
+import com.mongodb.ReadPreference;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fija la preferencia de lectura de cada petición según su endpoint, identificado por el método HTTP
+ * y el patrón del mapping ({@code GET /api/franquicias/{franquiciaId}/productos-max-stock}).
+ * <p>
+ * Solo se enrutan GET; las mutaciones, y los flujos que leen antes de escribir, siguen en el primario.
+ * Un cliente que necesita leer lo que acaba de escribir lo pide con {@code X-Read-Consistency: primary}.
+ */
+public class ReadRoutingInterceptor implements HandlerInterceptor {
+
+    public static final String CABECERA_CONSISTENCIA = "X-Read-Consistency";
+    public static final String CONSISTENCIA_PRIMARIO = "primary";
+
+    private static final Duration MIN_MAX_STALENESS = Duration.ofSeconds(90);
+
+    private final Map<String, ReadPreference> rutas = new HashMap<>();
+
+    public ReadRoutingInterceptor(ReadRoutingProperties properties) {
+        Duration maxStaleness = properties.getMaxStaleness();
+        if (maxStaleness.compareTo(MIN_MAX_STALENESS) < 0) {
+            throw new IllegalArgumentException(
+                    "franquicias.read-routing.max-staleness debe ser de al menos 90s: " + maxStaleness);
+        }
+        for (ReadRoutingProperties.Endpoint endpoint : properties.getEndpoints()) {
+            if (endpoint.getRuta() == null || endpoint.getModo() == null) {
+                throw new IllegalArgumentException(
+                        "Cada entrada de franquicias.read-routing.endpoints necesita ruta y modo: " + endpoint);
+            }
+            String ruta = endpoint.getRuta().trim();
+            if (!ruta.startsWith("GET ")) {
+                throw new IllegalArgumentException("Solo se pueden enrutar lecturas GET: " + ruta);
+            }
+            rutas.put(ruta, resolver(endpoint.getModo(), maxStaleness));
+        }
+    }
+
+    private static ReadPreference resolver(String modo, Duration maxStaleness) {
+        ReadPreference preferencia = ReadPreference.valueOf(modo);
+        if (preferencia.equals(ReadPreference.primary())) {
+            // El primario no admite maxStaleness
+            return preferencia;
+        }
+        return ReadPreference.valueOf(modo, List.of(), maxStaleness.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Comprueba que cada ruta configurada corresponda a un endpoint existente, para que renombrar o
+     * mover un endpoint no lo devuelva al primario sin avisar.
+     *
+     * @param existentes Rutas de los controladores, con el formato {@code GET /patron}.
+     * @throws IllegalStateException si alguna ruta configurada no existe.
+     */
+    public void validarRutas(Set<String> existentes) {
+        List<String> desconocidas = rutas.keySet().stream()
+                .filter(ruta -> !existentes.contains(ruta))
+                .sorted()
+                .toList();
+        if (!desconocidas.isEmpty()) {
+            throw new IllegalStateException(
+                    "franquicias.read-routing.endpoints contiene rutas sin endpoint: " + desconocidas);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())
+                || CONSISTENCIA_PRIMARIO.equalsIgnoreCase(request.getHeader(CABECERA_CONSISTENCIA))) {
+            return true;
+        }
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        ReadPreference preferencia = patron != null ? rutas.get("GET " + patron) : null;
+        if (preferencia != null) {
+            ReadRouting.usar(preferencia);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadRouting.limpiar();
+    }
+}
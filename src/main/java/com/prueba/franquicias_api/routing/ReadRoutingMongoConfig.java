@@ -0,0 +1,21 @@
+package com.prueba.franquicias_api.routing;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * Sustituye el {@link MongoTemplate} de Spring Boot por {@link RoutingMongoTemplate}. Va aparte de
+ * {@link ReadRoutingConfig} para que los tests {@code @WebMvcTest} no necesiten MongoDB. Sin el
+ * interceptor no hay preferencia enrutada y se comporta como el {@link MongoTemplate} normal.
+ */
+@Configuration
+public class ReadRoutingMongoConfig {
+
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+        return new RoutingMongoTemplate(mongoDatabaseFactory, mongoConverter);
+    }
+}
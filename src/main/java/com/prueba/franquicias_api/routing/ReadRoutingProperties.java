@@ -0,0 +1,38 @@
+package com.prueba.franquicias_api.routing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración del enrutado de lecturas ({@code franquicias.read-routing.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "franquicias.read-routing")
+public class ReadRoutingProperties {
+
+    private boolean enabled = true;
+
+    /** Retraso máximo admitido en un secundario; el driver exige al menos 90 s. */
+    private Duration maxStaleness = Duration.ofSeconds(90);
+
+    /**
+     * Endpoints que leen de secundarios. Los que no aparecen leen del primario.
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    @Data
+    public static class Endpoint {
+        /**
+         * Método HTTP y patrón del mapping, tal como lo declara el controlador
+         * (p. ej. {@code GET /api/franquicias/{franquiciaId}/productos-max-stock}).
+         */
+        private String ruta;
+
+        /** Modo de lectura del driver (p. ej. {@code secondaryPreferred}). */
+        private String modo;
+    }
+}
@@ -0,0 +1,28 @@
+package com.prueba.franquicias_api.routing;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * {@link MongoTemplate} que aplica a cada colección la preferencia de lectura de {@link ReadRouting}.
+ * <p>
+ * Los repositorios y servicios no cambian: todas las consultas pasan por {@link #prepareCollection}.
+ * Las escrituras van siempre al primario, sea cual sea la preferencia.
+ */
+public class RoutingMongoTemplate extends MongoTemplate {
+
+    public RoutingMongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter) {
+        super(mongoDbFactory, mongoConverter);
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        MongoCollection<Document> preparada = super.prepareCollection(collection);
+        ReadPreference enrutada = ReadRouting.actual();
+        return enrutada != null ? preparada.withReadPreference(enrutada) : preparada;
+    }
+}
@@ -0,0 +1,60 @@
+package com.prueba.franquicias_api.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos de respuesta para clientes máquina, elegidos con la cabecera {@code Accept}:
+ * <ul>
+ *     <li>{@code application/cbor} y {@code application/x-jackson-smile}: binarios compactos.</li>
+ *     <li>{@link #COMPACT_JSON}: JSON sin indentación.</li>
+ * </ul>
+ * Sin {@code Accept} o con {@code application/json} se sigue devolviendo el JSON indentado. Todos
+ * parten del {@link ObjectMapper} de Spring Boot, y CBOR y Smile también se aceptan como cuerpo de petición.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    public static final String COMPACT_JSON_VALUE = "application/vnd.franquicias.compact+json";
+    public static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+
+    private final ObjectMapper objectMapper;
+
+    public BinaryFormatsConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Sustituye los conversores por defecto (ObjectMapper sin la configuración de Boot) y los deja
+        // al final, para que el JSON indentado siga siendo el formato por defecto
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter
+                || c instanceof MappingJackson2SmileHttpMessageConverter);
+
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+
+        // El JSON compacto lo sirve el mismo conversor JSON con otro ObjectMapper. El orden importa:
+        // application/json va primero para que siga siendo el tipo elegido con Accept: */*
+        ObjectMapper compacto = objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        converters.stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .map(MappingJackson2HttpMessageConverter.class::cast)
+                .forEach(json -> json.registerObjectMappersForType(Object.class, mappers -> {
+                    mappers.put(MediaType.APPLICATION_JSON, json.getObjectMapper());
+                    mappers.put(COMPACT_JSON, compacto);
+                    mappers.put(new MediaType("application", "*+json"), json.getObjectMapper());
+                }));
+    }
+}
@@ -1,8 +1,10 @@
 package com.prueba.franquicias_api.service;
 
 import com.prueba.franquicias_api.dto.ProductoMaxStockDTO;
+import com.prueba.franquicias_api.dto.StockTotalesDTO;
 import com.prueba.franquicias_api.exception.FranquiciaNotFoundException;
 import com.prueba.franquicias_api.exception.SucursalNotFoundException;
+import com.prueba.franquicias_api.id.IdGenerator;
 import com.prueba.franquicias_api.model.Franquicia;
 import com.prueba.franquicias_api.model.Producto;
 import com.prueba.franquicias_api.model.Sucursal;
@@ -12,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -21,9 +24,11 @@ import java.util.Optional;
 public class FranquiciaService {
 
     private final FranquiciaRepository franquiciaRepository;
+    private final IdGenerator idGenerator;
 
-    public FranquiciaService(FranquiciaRepository franquiciaRepository) {
+    public FranquiciaService(FranquiciaRepository franquiciaRepository, IdGenerator idGenerator) {
         this.franquiciaRepository = franquiciaRepository;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -37,6 +42,12 @@ public class FranquiciaService {
         if (franquicia == null || !StringUtils.hasText(franquicia.getNombre())) {
             throw new IllegalArgumentException("El nombre de la franquicia no puede estar vacío");
         }
+        if (franquicia.getSucursales() == null) {
+            franquicia.setSucursales(new ArrayList<>());
+        }
+        franquicia.getSucursales().forEach(this::asignarIds);
+        recalcularTotales(franquicia);
+        franquicia.setVersion(null);
         return franquiciaRepository.save(franquicia);
     }
 
@@ -65,8 +76,11 @@ public class FranquiciaService {
         Franquicia franquicia = franquiciaRepository.findById(franquiciaId)
                 .orElseThrow(() -> new FranquiciaNotFoundException(franquiciaId));
 
+        asignarIds(nuevaSucursal);
+        nuevaSucursal.setTotalStock(0L);
         franquicia.getSucursales().add(nuevaSucursal);
-        return franquiciaRepository.save(franquicia);
+        aplicarDeltaStock(franquicia, nuevaSucursal, sumarStock(nuevaSucursal));
+        return guardar(franquicia);
     }
 
     /**
@@ -94,8 +108,10 @@ public class FranquiciaService {
                 .findFirst()
                 .orElseThrow(() -> new SucursalNotFoundException(sucursalId));
 
+        asignarId(nuevoProducto);
         sucursal.getProductos().add(nuevoProducto);
-        return franquiciaRepository.save(franquicia);
+        aplicarDeltaStock(franquicia, sucursal, nuevoProducto.getStock());
+        return guardar(franquicia);
     }
 
     /**
@@ -120,12 +136,14 @@ public class FranquiciaService {
                 .findFirst()
                 .orElseThrow(() -> new SucursalNotFoundException(sucursalId));
 
-        boolean removed = sucursal.getProductos().removeIf(p -> p.getId().equals(productoId));
-        if (!removed) {
-            throw new IllegalArgumentException("Producto no encontrado con id: " + productoId);
-        }
+        Producto producto = sucursal.getProductos().stream()
+                .filter(p -> p.getId().equals(productoId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con id: " + productoId));
 
-        return franquiciaRepository.save(franquicia);
+        sucursal.getProductos().remove(producto);
+        aplicarDeltaStock(franquicia, sucursal, -producto.getStock());
+        return guardar(franquicia);
     }
     /**
      * Actualiza el stock de un producto en una sucursal de una franquicia.
@@ -160,8 +178,10 @@ public class FranquiciaService {
                 .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con id: " + productoId));
 
+        int delta = nuevoStock - producto.getStock();
         producto.setStock(nuevoStock);
-        return franquiciaRepository.save(franquicia);
+        aplicarDeltaStock(franquicia, sucursal, delta);
+        return guardar(franquicia);
     }
     /**
      * Para cada sucursal de la franquicia indicada, encuentra el producto con más stock.
@@ -190,6 +210,33 @@ public class FranquiciaService {
                 .filter(Objects::nonNull)
                 .toList();
     }
+    /**
+     * Devuelve las unidades totales en stock de la franquicia y de cada sucursal.
+     * <p>
+     * Lee los contadores mantenidos en cada escritura, sin cargar los productos. Si la franquicia
+     * aún no tiene contadores, los calcula a partir de la franquicia completa.
+     *
+     * @param franquiciaId ID de la franquicia.
+     * @return Totales de stock de la franquicia y sus sucursales.
+     * @throws FranquiciaNotFoundException si no existe la franquicia.
+     */
+    public StockTotalesDTO obtenerTotalesStock(String franquiciaId) {
+        Franquicia franquicia = franquiciaRepository.findTotalesStockById(franquiciaId)
+                .orElseThrow(() -> new FranquiciaNotFoundException(franquiciaId));
+        if (faltanTotales(franquicia)) {
+            franquicia = franquiciaRepository.findById(franquiciaId)
+                    .orElseThrow(() -> new FranquiciaNotFoundException(franquiciaId));
+            recalcularTotales(franquicia);
+        }
+
+        return new StockTotalesDTO(
+                franquicia.getId(),
+                franquicia.getNombre(),
+                franquicia.getTotalStock(),
+                franquicia.getSucursales().stream()
+                        .map(s -> new StockTotalesDTO.SucursalStockDTO(s.getId(), s.getNombre(), s.getTotalStock()))
+                        .toList());
+    }
 /**
  * Actualiza el nombre de una franquicia existente.
  *
@@ -203,7 +250,7 @@ public class FranquiciaService {
         if (optional.isPresent()) {
             Franquicia franquicia = optional.get();
             franquicia.setNombre(nuevoNombre);
-            franquiciaRepository.save(franquicia);
+            guardar(franquicia);
             return ResponseEntity.ok(franquicia);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Franquicia no encontrada");
@@ -226,7 +273,7 @@ public class FranquiciaService {
             for (Sucursal sucursal : sucursales) {
                 if (sucursal.getNombre().equalsIgnoreCase(nombreAntiguo)) {
                     sucursal.setNombre(nuevoNombre);
-                    franquiciaRepository.save(franquicia);
+                    guardar(franquicia);
                     return ResponseEntity.ok(franquicia);
                 }
             }
@@ -253,7 +300,7 @@ public class FranquiciaService {
                     for (Producto producto : sucursal.getProductos()) {
                         if (producto.getNombre().equalsIgnoreCase(productoAntiguo)) {
                             producto.setNombre(nuevoNombre);
-                            franquiciaRepository.save(franquicia);
+                            guardar(franquicia);
                             return ResponseEntity.ok(franquicia);
                         }
                     }
@@ -264,4 +311,69 @@ public class FranquiciaService {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Franquicia no encontrada");
     }
 
+    /**
+     * Guarda una franquicia leída de la base de datos. Si se modificó desde la lectura, Spring Data lanza
+     * {@link org.springframework.dao.OptimisticLockingFailureException}.
+     * <p>
+     * Los documentos anteriores al campo {@code version} se leen con versión {@code null}, que Spring Data
+     * tomaría por un documento nuevo (y lo insertaría con el mismo {@code _id}); antes se les pone a 0.
+     */
+    private Franquicia guardar(Franquicia franquicia) {
+        if (franquicia.getVersion() == null) {
+            franquiciaRepository.inicializarVersion(franquicia.getId());
+            franquicia.setVersion(0L);
+        }
+        return franquiciaRepository.save(franquicia);
+    }
+
+    /**
+     * Asigna ID a una sucursal nueva y a los productos que traiga, respetando los que ya lo tengan.
+     * Una lista de productos nula se guarda como vacía.
+     */
+    private void asignarIds(Sucursal sucursal) {
+        if (!StringUtils.hasText(sucursal.getId())) {
+            sucursal.setId(idGenerator.nextId());
+        }
+        if (sucursal.getProductos() == null) {
+            sucursal.setProductos(new ArrayList<>());
+        }
+        sucursal.getProductos().forEach(this::asignarId);
+    }
+
+    private void asignarId(Producto producto) {
+        if (!StringUtils.hasText(producto.getId())) {
+            producto.setId(idGenerator.nextId());
+        }
+    }
+
+    private static long sumarStock(Sucursal sucursal) {
+        if (sucursal.getProductos() == null) {
+            return 0;
+        }
+        return sucursal.getProductos().stream().mapToLong(Producto::getStock).sum();
+    }
+
+    /**
+     * Aplica a los contadores la variación de stock de un cambio ya hecho en la franquicia. Si falta
+     * algún contador (documento anterior a ellos), en lugar de sumar sobre 0 los recalcula todos.
+     */
+    private static void aplicarDeltaStock(Franquicia franquicia, Sucursal sucursal, long delta) {
+        if (faltanTotales(franquicia)) {
+            recalcularTotales(franquicia);
+            return;
+        }
+        sucursal.setTotalStock(sucursal.getTotalStock() + delta);
+        franquicia.setTotalStock(franquicia.getTotalStock() + delta);
+    }
+
+    private static boolean faltanTotales(Franquicia franquicia) {
+        return franquicia.getTotalStock() == null
+                || franquicia.getSucursales().stream().anyMatch(s -> s.getTotalStock() == null);
+    }
+
+    private static void recalcularTotales(Franquicia franquicia) {
+        franquicia.getSucursales().forEach(s -> s.setTotalStock(sumarStock(s)));
+        franquicia.setTotalStock(franquicia.getSucursales().stream().mapToLong(Sucursal::getTotalStock).sum());
+    }
+
 }
@@ -0,0 +1,108 @@
+package com.prueba.franquicias_api.service;
+
+import com.prueba.franquicias_api.dto.SnapshotResultadoDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Exportación e importación de snapshots como tarea de operador, fuera de la API HTTP:
+ * <pre>
+ * java -jar app.jar --server.port=0 --snapshot.exportar=franquicias.bson.gz
+ * java -jar app.jar --server.port=0 --snapshot.importar=franquicias.bson.gz
+ * </pre>
+ * Con una de estas opciones la aplicación ejecuta la tarea y termina (código 0, o distinto de 0 si
+ * falla); sin ellas no hace nada. La exportación escribe en {@code <fichero>.part} y lo renombra al
+ * terminar, de modo que nunca queda un snapshot a medias con el nombre final. La importación valida
+ * el fichero completo antes de insertar el primer documento.
+ */
+@Component
+public class SnapshotJob implements ApplicationRunner {
+
+    static final String EXPORTAR = "snapshot.exportar";
+    static final String IMPORTAR = "snapshot.importar";
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotJob.class);
+
+    private final SnapshotService snapshotService;
+    private final ApplicationContext context;
+
+    public SnapshotJob(SnapshotService snapshotService, ApplicationContext context) {
+        this.snapshotService = snapshotService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (ejecutar(args)) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /**
+     * Ejecuta la tarea pedida en los argumentos, si hay alguna.
+     *
+     * @return {@code true} si se ejecutó una exportación o importación.
+     * @throws IllegalArgumentException si se piden las dos a la vez.
+     */
+    boolean ejecutar(ApplicationArguments args) throws IOException {
+        Path exportar = ruta(args, EXPORTAR);
+        Path importar = ruta(args, IMPORTAR);
+        if (exportar != null && importar != null) {
+            throw new IllegalArgumentException("Indica solo --" + EXPORTAR + " o --" + IMPORTAR);
+        }
+        if (exportar != null) {
+            exportar(exportar);
+            return true;
+        }
+        if (importar != null) {
+            importar(importar);
+            return true;
+        }
+        return false;
+    }
+
+    private void exportar(Path destino) throws IOException {
+        if (Files.exists(destino)) {
+            throw new IllegalArgumentException("El fichero ya existe: " + destino);
+        }
+        Path parcial = destino.resolveSibling(destino.getFileName() + ".part");
+        SnapshotResultadoDTO resultado;
+        try (FileChannel canal = FileChannel.open(parcial,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            resultado = snapshotService.exportar(canal);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(parcial);
+            throw ex;
+        }
+        Files.move(parcial, destino, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Snapshot exportado en {}: {} documentos, {} bytes", destino,
+                resultado.getDocumentos(), resultado.getBytes());
+    }
+
+    private void importar(Path origen) throws IOException {
+        SnapshotResultadoDTO resultado = snapshotService.importar(origen);
+        log.info("Snapshot importado desde {}: {} documentos, {} bytes", origen,
+                resultado.getDocumentos(), resultado.getBytes());
+    }
+
+    private static Path ruta(ApplicationArguments args, String opcion) {
+        List<String> valores = args.getOptionValues(opcion);
+        if (valores == null || valores.isEmpty()) {
+            return null;
+        }
+        return Path.of(valores.get(valores.size() - 1));
+    }
+}
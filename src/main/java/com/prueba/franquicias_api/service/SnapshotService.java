@@ -0,0 +1,343 @@
+package com.prueba.franquicias_api.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.InsertManyOptions;
+import com.prueba.franquicias_api.dto.SnapshotResultadoDTO;
+import com.prueba.franquicias_api.model.Franquicia;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta e importa la colección de franquicias completa como snapshot comprimido.
+ * <p>
+ * Formato: documentos BSON concatenados (cada uno empieza con su longitud int32 little-endian,
+ * igual que un {@code .bson} de mongodump) dentro de un stream gzip. Los documentos se copian
+ * como bytes crudos, sin mapearlos a {@link Franquicia}, y la memoria usada no depende del
+ * tamaño de la colección.
+ * <p>
+ * No forma parte de la API HTTP: lo usa {@link SnapshotJob}, que lanza un operador desde la línea
+ * de comandos.
+ */
+@Service
+public class SnapshotService {
+
+    private static final int BUFFER = 64 * 1024;
+    private static final int MAX_DOCUMENTO = 16 * 1024 * 1024;
+
+    private final MongoOperations mongoOperations;
+    private final int tamanoLote;
+    private final long bytesLote;
+    private final int trabajadores;
+
+    public SnapshotService(MongoOperations mongoOperations,
+                           @Value("${franquicias.snapshot.tamano-lote:1000}") int tamanoLote,
+                           @Value("${franquicias.snapshot.bytes-lote:8MB}") DataSize bytesLote,
+                           @Value("${franquicias.snapshot.trabajadores:4}") int trabajadores) {
+        this.mongoOperations = mongoOperations;
+        this.tamanoLote = tamanoLote;
+        this.bytesLote = bytesLote.toBytes();
+        this.trabajadores = trabajadores;
+    }
+
+    /**
+     * Escribe todas las franquicias en el canal, leyéndolas con un cursor.
+     *
+     * @param destino Canal donde se escribe el snapshot comprimido; se cierra al terminar.
+     * @return Documentos y bytes exportados.
+     */
+    public SnapshotResultadoDTO exportar(WritableByteChannel destino) throws IOException {
+        try (MongoCursor<RawBsonDocument> cursor = coleccion().find().batchSize(tamanoLote).cursor()) {
+            return escribir(cursor, destino);
+        }
+    }
+
+    /**
+     * Inserta en la colección de franquicias los documentos del snapshot, en lotes y con varios
+     * trabajadores en paralelo. Pensado para colecciones vacías: un ID repetido hace fallar la importación.
+     * Los totales de stock que falten los completa {@link StockTotalesReconciliador}.
+     *
+     * @param fichero Snapshot generado por {@link #exportar}.
+     * @return Documentos y bytes importados.
+     * @throws IllegalArgumentException si algún documento no es válido; en ese caso no se inserta ninguno.
+     */
+    public SnapshotResultadoDTO importar(Path fichero) throws IOException {
+        MongoCollection<RawBsonDocument> coleccion = coleccion();
+        InsertManyOptions opciones = new InsertManyOptions().ordered(false);
+        return importar(fichero, lote -> coleccion.insertMany(lote, opciones));
+    }
+
+    /**
+     * Importa el snapshot en dos pasadas sobre el fichero: la primera valida todos los documentos con
+     * {@link #validar} y la segunda, solo si todos son válidos, los entrega a {@code insertor}. Así un
+     * documento inválido no deja la colección a medio importar.
+     *
+     * @param fichero  Snapshot generado por {@link #exportar}.
+     * @param insertor Recibe cada lote de documentos; debe ser seguro entre hilos.
+     * @return Documentos y bytes importados.
+     * @throws IllegalArgumentException si algún documento no es válido; en ese caso no se inserta ninguno.
+     */
+    public SnapshotResultadoDTO importar(Path fichero, Consumer<List<RawBsonDocument>> insertor) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            validar(canal);
+        }
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            return importar(canal, insertor);
+        }
+    }
+
+    /**
+     * Comprueba que cada documento del snapshot sea una franquicia que {@link FranquiciaService} habría
+     * guardado (nombres no vacíos, IDs asignados y stock ≥ 0), sin insertar nada.
+     *
+     * @param origen Canal de entrada; se cierra al terminar.
+     * @return Documentos y bytes leídos.
+     * @throws IllegalArgumentException si algún documento no es válido.
+     */
+    public SnapshotResultadoDTO validar(ReadableByteChannel origen) throws IOException {
+        return procesar(origen, (lote, primero) -> {
+            for (int i = 0; i < lote.size(); i++) {
+                validar(lote.get(i), primero + i);
+            }
+        });
+    }
+
+    /**
+     * Escribe los documentos en formato snapshot.
+     *
+     * @param documentos Documentos a escribir.
+     * @param destino    Canal de salida; se cierra al terminar.
+     * @return Documentos y bytes escritos.
+     */
+    public SnapshotResultadoDTO escribir(Iterator<RawBsonDocument> documentos,
+                                        WritableByteChannel destino) throws IOException {
+        long total = 0;
+        long bytes = 0;
+        try (GZIPOutputStream salida = new GZIPOutputStream(Channels.newOutputStream(destino), BUFFER) {
+            {
+                // El nivel por defecto limita el throughput; el BSON repetitivo comprime bien igualmente
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        }) {
+            while (documentos.hasNext()) {
+                ByteBuffer documento = documentos.next().getByteBuffer().asNIO();
+                int longitud = documento.remaining();
+                if (documento.hasArray()) {
+                    salida.write(documento.array(), documento.arrayOffset() + documento.position(),
+                            longitud);
+                } else {
+                    byte[] copia = new byte[longitud];
+                    documento.get(copia);
+                    salida.write(copia);
+                }
+                bytes += longitud;
+                total++;
+            }
+        }
+        return new SnapshotResultadoDTO(total, bytes);
+    }
+
+    /**
+     * Lee un snapshot y entrega sus documentos en lotes a {@code insertor}, sin validarlos (ver
+     * {@link #importar(Path, Consumer)}).
+     *
+     * @param origen   Canal de entrada; se cierra al terminar.
+     * @param insertor Recibe cada lote de documentos; debe ser seguro entre hilos.
+     * @return Documentos y bytes leídos.
+     */
+    public SnapshotResultadoDTO importar(ReadableByteChannel origen,
+                                        Consumer<List<RawBsonDocument>> insertor) throws IOException {
+        return procesar(origen, (lote, primero) -> insertor.accept(lote));
+    }
+
+    /**
+     * Lee un snapshot y entrega sus documentos en lotes a {@code tarea}, ejecutada en paralelo
+     * por {@code trabajadores} hilos junto con la posición del primer documento del lote. Un lote se cierra al llegar a {@code tamanoLote} documentos o
+     * a {@code bytesLote} bytes, lo que ocurra antes, y como mucho hay {@code 2 × trabajadores + 1}
+     * lotes en memoria: la memoria usada queda acotada aunque los documentos sean grandes.
+     *
+     */
+    private SnapshotResultadoDTO procesar(ReadableByteChannel origen,
+                                          ObjLongConsumer<List<RawBsonDocument>> tarea) throws IOException {
+        AtomicReference<RuntimeException> error = new AtomicReference<>();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(trabajadores, trabajadores,
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(trabajadores),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        long total = 0;
+        long bytes = 0;
+        try (InputStream entrada = new BufferedInputStream(
+                new GZIPInputStream(Channels.newInputStream(origen), BUFFER), BUFFER)) {
+            List<RawBsonDocument> lote = new ArrayList<>();
+            long bytesEnLote = 0;
+            RawBsonDocument documento;
+            while (error.get() == null && (documento = leerDocumento(entrada)) != null) {
+                int longitud = documento.getByteBuffer().remaining();
+                lote.add(documento);
+                bytesEnLote += longitud;
+                bytes += longitud;
+                total++;
+                if (lote.size() == tamanoLote || bytesEnLote >= bytesLote) {
+                    enviar(executor, lote, total - lote.size(), tarea, error);
+                    lote = new ArrayList<>();
+                    bytesEnLote = 0;
+                }
+            }
+            if (!lote.isEmpty() && error.get() == null) {
+                enviar(executor, lote, total - lote.size(), tarea, error);
+            }
+        } finally {
+            executor.shutdown();
+            esperar(executor);
+        }
+        if (error.get() != null) {
+            throw error.get();
+        }
+        return new SnapshotResultadoDTO(total, bytes);
+    }
+
+    /**
+     * Valida un documento; {@code indice} es su posición en el snapshot, para el mensaje de error.
+     */
+    private static void validar(RawBsonDocument raw, long indice) {
+        // Se decodifica una vez: cada acceso a un RawBsonDocument recorre sus bytes desde el principio
+        BsonDocument documento = raw.decode(new BsonDocumentCodec());
+        if (!documento.containsKey("_id")) {
+            throw invalido(indice, "sin _id");
+        }
+        exigirNombre(documento, indice, "franquicia");
+        for (BsonValue s : lista(documento, "sucursales", indice)) {
+            if (!s.isDocument()) {
+                throw invalido(indice, "sucursal que no es un documento");
+            }
+            BsonDocument sucursal = s.asDocument();
+            exigirId(sucursal, indice, "sucursal");
+            exigirNombre(sucursal, indice, "sucursal");
+            for (BsonValue p : lista(sucursal, "productos", indice)) {
+                if (!p.isDocument()) {
+                    throw invalido(indice, "producto que no es un documento");
+                }
+                BsonDocument producto = p.asDocument();
+                exigirId(producto, indice, "producto");
+                exigirNombre(producto, indice, "producto");
+                BsonValue stock = producto.get("stock");
+                if (stock == null || !stock.isNumber() || stock.asNumber().longValue() < 0) {
+                    throw invalido(indice, "producto con stock ausente o negativo");
+                }
+            }
+        }
+    }
+
+    private static List<BsonValue> lista(BsonDocument documento, String campo, long indice) {
+        BsonValue valor = documento.get(campo);
+        if (valor == null || valor.isNull()) {
+            return List.of();
+        }
+        if (!valor.isArray()) {
+            throw invalido(indice, campo + " no es una lista");
+        }
+        return valor.asArray().getValues();
+    }
+
+    private static void exigirId(BsonDocument documento, long indice, String tipo) {
+        // Spring Data guarda la propiedad id de los subdocumentos como _id
+        BsonValue id = documento.containsKey("_id") ? documento.get("_id") : documento.get("id");
+        if (id == null || !id.isString() || id.asString().getValue().isBlank()) {
+            throw invalido(indice, tipo + " sin id");
+        }
+    }
+
+    private static void exigirNombre(BsonDocument documento, long indice, String tipo) {
+        BsonValue nombre = documento.get("nombre");
+        if (nombre == null || !nombre.isString() || nombre.asString().getValue().isBlank()) {
+            throw invalido(indice, tipo + " sin nombre");
+        }
+    }
+
+    private static IllegalArgumentException invalido(long indice, String motivo) {
+        return new IllegalArgumentException("Documento " + indice + " del snapshot inválido: " + motivo);
+    }
+
+    private MongoCollection<RawBsonDocument> coleccion() {
+        return mongoOperations.getCollection(mongoOperations.getCollectionName(Franquicia.class))
+                .withDocumentClass(RawBsonDocument.class);
+    }
+
+    /**
+     * Procesa el lote en un trabajador; {@code primero} es la posición de su primer documento en el
+     * snapshot. Tras el primer error, los lotes pendientes se descartan.
+     */
+    private static void enviar(ExecutorService executor, List<RawBsonDocument> lote, long primero,
+                               ObjLongConsumer<List<RawBsonDocument>> tarea,
+                               AtomicReference<RuntimeException> error) {
+        executor.execute(() -> {
+            try {
+                if (error.get() == null) {
+                    tarea.accept(lote, primero);
+                }
+            } catch (RuntimeException ex) {
+                error.compareAndSet(null, ex);
+            }
+        });
+    }
+
+    private static void esperar(ExecutorService executor) {
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return El siguiente documento, o {@code null} al final del snapshot.
+     */
+    private static RawBsonDocument leerDocumento(InputStream entrada) throws IOException {
+        byte[] cabecera = entrada.readNBytes(4);
+        if (cabecera.length == 0) {
+            return null;
+        }
+        if (cabecera.length < 4) {
+            throw new EOFException("Snapshot truncado");
+        }
+        int longitud = (cabecera[0] & 0xFF)
+                | (cabecera[1] & 0xFF) << 8
+                | (cabecera[2] & 0xFF) << 16
+                | (cabecera[3] & 0xFF) << 24;
+        if (longitud < 5 || longitud > MAX_DOCUMENTO) {
+            throw new IOException("Longitud de documento inválida en el snapshot: " + longitud);
+        }
+        byte[] documento = new byte[longitud];
+        System.arraycopy(cabecera, 0, documento, 0, 4);
+        if (entrada.readNBytes(documento, 4, longitud - 4) != longitud - 4) {
+            throw new EOFException("Snapshot truncado");
+        }
+        return new RawBsonDocument(documento);
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.prueba.franquicias_api.service;
+
+import com.prueba.franquicias_api.model.Franquicia;
+import com.prueba.franquicias_api.repository.MongoLease;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Recalcula periódicamente los totales de stock de cada franquicia y corrige las desviaciones
+ * respecto a los contadores mantenidos por {@link FranquiciaService}.
+ * <p>
+ * Trabaja sobre documentos BSON crudos para no depender del mapeo (los documentos anteriores a los
+ * contadores no tienen el campo). La corrección solo se aplica si la versión del documento
+ * ({@link Franquicia#getVersion()}) no ha cambiado desde la lectura; si hubo una escritura concurrente,
+ * se reintenta en la siguiente ejecución.
+ * <p>
+ * Con varias réplicas, solo la que tiene la concesión {@value #LEASE} ({@link MongoLease}) recorre la
+ * colección. Al arrancar, fuera del hilo principal para no retrasar la disponibilidad, completa solo
+ * los documentos que aún no tienen contadores. Se desactiva con
+ * {@code franquicias.stock-totales.reconciliacion.enabled=false}.
+ */
+@Component
+public class StockTotalesReconciliador {
+
+    private static final Logger log = LoggerFactory.getLogger(StockTotalesReconciliador.class);
+
+    static final String LEASE = "stock-totales-reconciliacion";
+
+    private final MongoOperations mongoOperations;
+    private final MongoLease lease;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${franquicias.stock-totales.reconciliacion.enabled:true}")
+    private boolean activo = true;
+
+    @Value("${franquicias.stock-totales.reconciliacion.intervalo:PT1H}")
+    private Duration intervalo = Duration.ofHours(1);
+
+    public StockTotalesReconciliador(MongoOperations mongoOperations, MongoLease lease, TaskScheduler taskScheduler) {
+        this.mongoOperations = mongoOperations;
+        this.lease = lease;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        if (!activo) {
+            log.info("Reconciliación de totales de stock desactivada (franquicias.stock-totales.reconciliacion.enabled=false)");
+            return;
+        }
+        taskScheduler.schedule(this::completarAlArrancar, Instant.now());
+    }
+
+    private void completarAlArrancar() {
+        try {
+            if (lease.adquirir(LEASE, duracionLease())) {
+                completarPendientes();
+            }
+        } catch (DataAccessException ex) {
+            // Mientras tanto FranquiciaService recalcula los contadores que falten al leer o escribir
+            log.error("No se pudieron completar los totales de stock al arrancar", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${franquicias.stock-totales.reconciliacion.intervalo:PT1H}",
+            initialDelayString = "${franquicias.stock-totales.reconciliacion.intervalo:PT1H}")
+    public void programada() {
+        if (activo && lease.adquirir(LEASE, duracionLease())) {
+            reconciliar();
+        }
+    }
+
+    /**
+     * Recorre todas las franquicias y corrige los totales desviados.
+     *
+     * @return Número de franquicias corregidas.
+     */
+    public int reconciliar() {
+        return reconciliar(new Query());
+    }
+
+    /**
+     * Completa los contadores de las franquicias guardadas antes de existir, sin recorrer el resto.
+     *
+     * @return Número de franquicias corregidas.
+     */
+    public int completarPendientes() {
+        return reconciliar(new Query(Criteria.where("totalStock").exists(false)));
+    }
+
+    /**
+     * La concesión dura dos intervalos: el nodo que la tiene la renueva en cada ejecución, que empieza
+     * un intervalo después de terminar la anterior; otro nodo solo la obtiene si este deja de hacerlo.
+     */
+    private Duration duracionLease() {
+        return intervalo.multipliedBy(2);
+    }
+
+    private int reconciliar(Query filtro) {
+        String coleccion = mongoOperations.getCollectionName(Franquicia.class);
+        int corregidas = 0;
+        try (Stream<Document> documentos = mongoOperations.stream(filtro, Document.class, coleccion)) {
+            for (Document documento : (Iterable<Document>) documentos::iterator) {
+                if (corregir(documento, coleccion)) {
+                    corregidas++;
+                }
+            }
+        }
+        if (corregidas > 0) {
+            log.warn("Totales de stock corregidos en {} franquicias", corregidas);
+        }
+        return corregidas;
+    }
+
+    private boolean corregir(Document documento, String coleccion) {
+        List<Document> sucursales = documento.getList("sucursales", Document.class, List.of());
+        Update update = new Update();
+        long totalFranquicia = 0;
+        boolean desviado = false;
+
+        for (int i = 0; i < sucursales.size(); i++) {
+            long totalSucursal = sucursales.get(i).getList("productos", Document.class, List.of()).stream()
+                    .mapToLong(p -> {
+                        Long stock = leerLong(p, "stock");
+                        return stock == null ? 0 : stock;
+                    })
+                    .sum();
+            totalFranquicia += totalSucursal;
+            if (!Long.valueOf(totalSucursal).equals(leerLong(sucursales.get(i), "totalStock"))) {
+                update.set("sucursales." + i + ".totalStock", totalSucursal);
+                desviado = true;
+            }
+        }
+        if (!Long.valueOf(totalFranquicia).equals(leerLong(documento, "totalStock"))) {
+            update.set("totalStock", totalFranquicia);
+            desviado = true;
+        }
+        if (!desviado) {
+            return false;
+        }
+
+        // Misma versión que la leída: si hubo una escritura entretanto no se toca. El incremento hace
+        // fallar a su vez a quien guarde con la versión anterior a esta corrección.
+        Criteria sinCambios = Criteria.where("_id").is(documento.get("_id"));
+        Object version = documento.get("version");
+        if (version == null) {
+            sinCambios.and("version").exists(false);
+            update.set("version", 1L);
+        } else {
+            sinCambios.and("version").is(version);
+            update.inc("version", 1);
+        }
+        boolean aplicada = mongoOperations.updateFirst(new Query(sinCambios), update, coleccion).getModifiedCount() > 0;
+        if (aplicada) {
+            log.info("Totales de stock corregidos en franquicia {}", documento.get("_id"));
+        }
+        return aplicada;
+    }
+
+    private static Long leerLong(Document documento, String campo) {
+        Number valor = documento.get(campo, Number.class);
+        return valor == null ? null : valor.longValue();
+    }
+}
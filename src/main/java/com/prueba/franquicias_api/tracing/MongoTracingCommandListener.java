@@ -0,0 +1,79 @@
+package com.prueba.franquicias_api.tracing;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonReader;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suma a la {@link RequestTrace} del hilo actual cada comando de MongoDB: latencia, bytes enviados y
+ * bytes de la respuesta.
+ */
+public class MongoTracingCommandListener implements CommandListener {
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        RequestTrace trace = RequestTrace.actual();
+        if (trace != null) {
+            trace.registrarEnvio(tamano(event.getCommand()));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        RequestTrace trace = RequestTrace.actual();
+        if (trace != null) {
+            trace.registrarComando(event.getElapsedTime(TimeUnit.NANOSECONDS), tamano(event.getResponse()));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        RequestTrace trace = RequestTrace.actual();
+        if (trace != null) {
+            trace.registrarComando(event.getElapsedTime(TimeUnit.NANOSECONDS), 0);
+        }
+    }
+
+    /**
+     * Tamaño en BSON de un documento del driver, sin decodificarlo ni volver a codificarlo.
+     * <p>
+     * Las respuestas llegan como {@link RawBsonDocument} y los comandos como documentos sobre el buffer
+     * de envío, cuyo lector binario empieza por la longitud. Los comandos con secuencias de documentos
+     * ({@code insert}, {@code update}...) llegan como un documento compuesto: se suman los documentos
+     * que contiene, que son casi todo el mensaje, y no la cabecera del comando.
+     */
+    static long tamano(BsonDocument documento) {
+        if (documento == null) {
+            return 0;
+        }
+        if (documento instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        try (BsonReader lector = documento.asBsonReader()) {
+            if (lector instanceof BsonBinaryReader binario) {
+                return binario.getBsonInput().readInt32();
+            }
+        }
+        long bytes = 0;
+        for (BsonValue valor : documento.values()) {
+            if (valor.isDocument()) {
+                bytes += tamano(valor.asDocument());
+            } else if (valor.isArray()) {
+                for (BsonValue elemento : valor.asArray()) {
+                    if (elemento.isDocument()) {
+                        bytes += tamano(elemento.asDocument());
+                    }
+                }
+            }
+        }
+        return bytes;
+    }
+}
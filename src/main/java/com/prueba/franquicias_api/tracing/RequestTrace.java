@@ -0,0 +1,96 @@
+package com.prueba.franquicias_api.tracing;
+
+/**
+ * Mediciones de una petición HTTP en curso, asociadas al hilo que la atiende.
+ * <p>
+ * Solo se escriben desde ese hilo (el driver síncrono de MongoDB notifica los comandos en el hilo
+ * que los ejecuta), así que no necesita sincronización.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> ACTUAL = new ThreadLocal<>();
+
+    private final long inicio = System.nanoTime();
+    private int mongoComandos;
+    private long mongoNanos;
+    private long mongoBytesEnviados;
+    private long mongoBytesRecibidos;
+    private long inicioHandler;
+    private long finHandler;
+
+    private RequestTrace() {
+    }
+
+    static RequestTrace iniciar() {
+        RequestTrace trace = new RequestTrace();
+        ACTUAL.set(trace);
+        return trace;
+    }
+
+    static void terminar() {
+        ACTUAL.remove();
+    }
+
+    /**
+     * @return La traza de la petición del hilo actual, o {@code null} fuera de una petición.
+     */
+    public static RequestTrace actual() {
+        return ACTUAL.get();
+    }
+
+    void registrarEnvio(long bytes) {
+        mongoBytesEnviados += bytes;
+    }
+
+    void registrarComando(long nanos, long bytesRespuesta) {
+        mongoComandos++;
+        mongoNanos += nanos;
+        mongoBytesRecibidos += bytesRespuesta;
+    }
+
+    /**
+     * Marca el inicio del controlador: el tiempo anterior es de filtros e interceptores.
+     */
+    void marcarInicioHandler() {
+        if (inicioHandler == 0) {
+            inicioHandler = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marca el fin del controlador: a partir de aquí el tiempo es de serialización de la respuesta.
+     */
+    void marcarFinHandler() {
+        if (finHandler == 0) {
+            finHandler = System.nanoTime();
+        }
+    }
+
+    long getInicio() {
+        return inicio;
+    }
+
+    int getMongoComandos() {
+        return mongoComandos;
+    }
+
+    long getMongoNanos() {
+        return mongoNanos;
+    }
+
+    long getMongoBytesEnviados() {
+        return mongoBytesEnviados;
+    }
+
+    long getMongoBytesRecibidos() {
+        return mongoBytesRecibidos;
+    }
+
+    long getInicioHandler() {
+        return inicioHandler;
+    }
+
+    long getFinHandler() {
+        return finHandler;
+    }
+}
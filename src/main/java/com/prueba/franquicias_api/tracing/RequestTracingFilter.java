@@ -0,0 +1,67 @@
+package com.prueba.franquicias_api.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Traza cada petición a la API y escribe en el log {@code franquicias.slow-requests} las que superan
+ * el umbral configurado, desglosando el tiempo en filtros previos, MongoDB, el servicio y la serialización.
+ * El inicio del controlador lo marca {@link TracingHandlerInterceptor} y el fin
+ * {@link TracingResponseBodyAdvice}.
+ * <p>
+ * El coste por petición es un objeto, un {@link ThreadLocal} y unas pocas lecturas de
+ * {@link System#nanoTime()}, por lo que puede quedar activo en producción.
+ */
+public class RequestTracingFilter extends OncePerRequestFilter {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("franquicias.slow-requests");
+
+    private final long umbralNanos;
+
+    public RequestTracingFilter(Duration umbral) {
+        this.umbralNanos = umbral.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTrace.terminar();
+            long total = System.nanoTime() - trace.getInicio();
+            if (total >= umbralNanos) {
+                registrarLenta(request, response, trace, total);
+            }
+        }
+    }
+
+    private void registrarLenta(HttpServletRequest request, HttpServletResponse response,
+                                RequestTrace trace, long total) {
+        long inicioHandler = trace.getInicioHandler() == 0 ? trace.getInicio() : trace.getInicioHandler();
+        long finHandler = trace.getFinHandler() == 0 ? trace.getInicio() + total : trace.getFinHandler();
+        long previo = inicioHandler - trace.getInicio();
+        long servicio = Math.max(0, finHandler - inicioHandler - trace.getMongoNanos());
+        long serializacion = trace.getInicio() + total - finHandler;
+
+        slowLog.warn("metodo={} ruta={} estado={} totalMs={} mongoComandos={} mongoMs={} mongoBytesEnviados={} "
+                        + "mongoBytesRecibidos={} previoMs={} servicioMs={} serializacionMs={}",
+                request.getMethod(), request.getRequestURI(), response.getStatus(), ms(total),
+                trace.getMongoComandos(), ms(trace.getMongoNanos()), trace.getMongoBytesEnviados(),
+                trace.getMongoBytesRecibidos(), ms(previo), ms(servicio), ms(serializacion));
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,64 @@
+package com.prueba.franquicias_api.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Activa la traza por petición ({@code franquicias.tracing.enabled}) sobre las rutas de la API.
+ * <p>
+ * Los beans se registran siempre y la propiedad se consulta al crearlos, para que también se respete
+ * en la imagen AOT, donde las condiciones quedan fijadas al construirla.
+ */
+@Configuration
+public class TracingConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(TracingConfig.class);
+
+    private final boolean activo;
+
+    public TracingConfig(@Value("${franquicias.tracing.enabled:true}") boolean activo) {
+        this.activo = activo;
+        if (!activo) {
+            log.info("Traza por petición desactivada (franquicias.tracing.enabled=false)");
+        }
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTracingCustomizer() {
+        return settings -> {
+            if (activo) {
+                settings.addCommandListener(new MongoTracingCommandListener());
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTracingFilter> requestTracingFilter(
+            @Value("${franquicias.tracing.slow-threshold:500ms}") Duration umbral) {
+        FilterRegistrationBean<RequestTracingFilter> registro =
+                new FilterRegistrationBean<>(new RequestTracingFilter(umbral));
+        registro.addUrlPatterns("/api/*");
+        registro.setEnabled(activo);
+        return registro;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (activo) {
+            // El último de la cadena, para que su marca sea lo más cercana posible al controlador
+            registry.addInterceptor(new TracingHandlerInterceptor())
+                    .addPathPatterns("/api/**")
+                    .order(Ordered.LOWEST_PRECEDENCE);
+        }
+    }
+}
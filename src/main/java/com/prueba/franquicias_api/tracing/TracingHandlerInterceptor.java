@@ -0,0 +1,21 @@
+package com.prueba.franquicias_api.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Marca en la {@link RequestTrace} el momento en que Spring MVC entrega la petición al controlador, para
+ * que el tiempo de servicio no incluya los filtros ni los interceptores que se ejecutan antes.
+ */
+public class TracingHandlerInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTrace trace = RequestTrace.actual();
+        if (trace != null) {
+            trace.marcarInicioHandler();
+        }
+        return true;
+    }
+}
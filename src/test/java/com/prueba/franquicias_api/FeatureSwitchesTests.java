@@ -0,0 +1,48 @@
+package com.prueba.franquicias_api;
+
+import com.prueba.franquicias_api.concurrency.ConcurrencyLimitFilter;
+import com.prueba.franquicias_api.tracing.RequestTracingFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los interruptores {@code franquicias.*} se leen al arrancar, no mediante condiciones de bean, para
+ * que también funcionen en la imagen con AOT.
+ */
+@SpringBootTest(properties = {
+		"franquicias.indexes.ensure-on-startup=false",
+		"franquicias.stock-totales.reconciliacion.enabled=false",
+		"franquicias.tracing.enabled=false",
+		"franquicias.concurrency.enabled=false",
+		"franquicias.read-routing.enabled=false"})
+@ExtendWith(OutputCaptureExtension.class)
+class FeatureSwitchesTests {
+
+	@Autowired
+	private FilterRegistrationBean<RequestTracingFilter> requestTracingFilter;
+
+	@Autowired
+	private FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter;
+
+	@Test
+	void interruptoresDesactivados_seRespetanAlArrancar(CapturedOutput output) {
+		assertFalse(requestTracingFilter.isEnabled());
+		assertFalse(concurrencyLimitFilter.isEnabled());
+		for (String propiedad : new String[]{
+				"franquicias.indexes.ensure-on-startup=false",
+				"franquicias.stock-totales.reconciliacion.enabled=false",
+				"franquicias.tracing.enabled=false",
+				"franquicias.concurrency.enabled=false",
+				"franquicias.read-routing.enabled=false"}) {
+			assertTrue(output.getOut().contains(propiedad), propiedad);
+		}
+	}
+}
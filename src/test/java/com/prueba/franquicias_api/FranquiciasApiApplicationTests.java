@@ -3,7 +3,9 @@ package com.prueba.franquicias_api;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"franquicias.indexes.ensure-on-startup=false",
+		"franquicias.stock-totales.reconciliacion.enabled=false"})
 class FranquiciasApiApplicationTests {
 
 	@Test
@@ -0,0 +1,134 @@
+package com.prueba.franquicias_api.benchmark;
+
+import com.mongodb.MongoClientSettings;
+import com.prueba.franquicias_api.id.IdGenerator;
+import com.prueba.franquicias_api.id.TimeOrderedIdGenerator;
+import com.prueba.franquicias_api.model.Franquicia;
+import com.prueba.franquicias_api.model.Producto;
+import com.prueba.franquicias_api.model.Sucursal;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compara UUID aleatorios frente a {@link TimeOrderedIdGenerator}: tamaño BSON de los documentos
+ * y tiempo de carga (bytes BSON a {@link Franquicia}) con el mapeador de Spring Data.
+ * <p>
+ * Ejecutar con {@code mvn test -Pbenchmark -Dtest=IdGenerationBenchmark}.
+ */
+@Tag("benchmark")
+class IdGenerationBenchmark {
+
+    private static final int DOCUMENTOS = 200;
+    private static final int SUCURSALES = 20;
+    private static final int PRODUCTOS = 50;
+    private static final int ITERACIONES = 5;
+
+    private final Codec<Document> codec = MongoClientSettings.getDefaultCodecRegistry().get(Document.class);
+
+    @Test
+    void tamanoYCargaDeDocumentos() {
+        MongoMappingContext contexto = new MongoMappingContext();
+        contexto.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, contexto);
+        converter.afterPropertiesSet();
+
+        IdGenerator compacto = new TimeOrderedIdGenerator();
+        List<Document> conUuid = generar(converter, () -> UUID.randomUUID().toString());
+        List<Document> conCompacto = generar(converter, compacto::nextId);
+
+        System.out.printf("%-28s %14s %14s%n", "ids", "bytes/doc", "carga ms/doc");
+        medir("UUID + UUID en inicializador", converter, conUuid, true);
+        medir("UUID", converter, conUuid, false);
+        medir("TimeOrderedIdGenerator", converter, conCompacto, false);
+
+        medirGeneracion("UUID.randomUUID()", () -> UUID.randomUUID().toString());
+        medirGeneracion("TimeOrderedIdGenerator", compacto::nextId);
+    }
+
+    private List<Document> generar(MappingMongoConverter converter, Supplier<String> ids) {
+        List<Document> documentos = new ArrayList<>(DOCUMENTOS);
+        for (int d = 0; d < DOCUMENTOS; d++) {
+            Franquicia franquicia = new Franquicia();
+            franquicia.setId("franquicia-" + d);
+            franquicia.setNombre("Franquicia " + d);
+            for (int s = 0; s < SUCURSALES; s++) {
+                Sucursal sucursal = new Sucursal();
+                sucursal.setId(ids.get());
+                sucursal.setNombre("Sucursal " + s);
+                for (int p = 0; p < PRODUCTOS; p++) {
+                    Producto producto = new Producto();
+                    producto.setId(ids.get());
+                    producto.setNombre("Producto " + p);
+                    producto.setStock(p);
+                    sucursal.getProductos().add(producto);
+                }
+                franquicia.getSucursales().add(sucursal);
+            }
+            Document documento = new Document();
+            converter.write(franquicia, documento);
+            documentos.add(documento);
+        }
+        return documentos;
+    }
+
+    /**
+     * @param simularInicializador Genera un UUID por entidad embebida cargada, como hacían los
+     *                             inicializadores de campo antes de {@link IdGenerator}.
+     */
+    private void medir(String nombre, MappingMongoConverter converter, List<Document> documentos,
+                       boolean simularInicializador) {
+        List<RawBsonDocument> raw = documentos.stream()
+                .map(d -> new RawBsonDocument(d, codec))
+                .toList();
+        long bytes = raw.stream().mapToLong(r -> r.getByteBuffer().remaining()).sum();
+
+        long mejor = Long.MAX_VALUE;
+        long sumidero = 0;
+        for (int i = 0; i < ITERACIONES; i++) {
+            long inicio = System.nanoTime();
+            for (RawBsonDocument documento : raw) {
+                Franquicia franquicia = converter.read(Franquicia.class, documento.decode(codec));
+                if (simularInicializador) {
+                    for (Sucursal sucursal : franquicia.getSucursales()) {
+                        sumidero += UUID.randomUUID().hashCode();
+                        for (int p = 0; p < sucursal.getProductos().size(); p++) {
+                            sumidero += UUID.randomUUID().hashCode();
+                        }
+                    }
+                }
+                sumidero += franquicia.getSucursales().size();
+            }
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        System.out.printf("%-28s %14d %14.3f%n", nombre, bytes / raw.size(),
+                mejor / 1e6 / raw.size());
+        if (sumidero == 42) {
+            System.out.println();
+        }
+    }
+
+    private void medirGeneracion(String nombre, Supplier<String> ids) {
+        int total = 1_000_000;
+        long mejor = Long.MAX_VALUE;
+        int sumidero = 0;
+        for (int i = 0; i < ITERACIONES; i++) {
+            long inicio = System.nanoTime();
+            for (int n = 0; n < total; n++) {
+                sumidero += ids.get().length();
+            }
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        System.out.printf("%-28s %10.1f ns/id (%d)%n", nombre, (double) mejor / total, sumidero % 2);
+    }
+}
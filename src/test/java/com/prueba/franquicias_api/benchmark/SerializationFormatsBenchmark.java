@@ -0,0 +1,110 @@
+package com.prueba.franquicias_api.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.prueba.franquicias_api.dto.ProductoMaxStockDTO;
+import com.prueba.franquicias_api.model.Franquicia;
+import com.prueba.franquicias_api.model.Producto;
+import com.prueba.franquicias_api.model.Sucursal;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tamaño y tiempo de codificación/decodificación de cada formato de respuesta
+ * (ver {@code BinaryFormatsConfig}) para una franquicia grande y su lista de productos con más stock.
+ * <p>
+ * Ejecutar con {@code mvn test -Pbenchmark -Dtest=SerializationFormatsBenchmark}.
+ */
+@Tag("benchmark")
+class SerializationFormatsBenchmark {
+
+    private static final int SUCURSALES = 200;
+    private static final int PRODUCTOS = 100;
+    private static final int ITERACIONES = 30;
+
+    @Test
+    void formatos() throws Exception {
+        Map<String, ObjectMapper> formatos = new LinkedHashMap<>();
+        formatos.put("json indentado", new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT));
+        formatos.put("json compacto", new ObjectMapper());
+        formatos.put("cbor", new ObjectMapper(new CBORFactory()));
+        formatos.put("smile", new ObjectMapper(new SmileFactory()));
+
+        Franquicia franquicia = franquiciaGrande();
+        List<ProductoMaxStockDTO> maxStock = franquicia.getSucursales().stream()
+                .map(s -> {
+                    Producto p = s.getProductos().get(s.getProductos().size() - 1);
+                    return new ProductoMaxStockDTO(s.getId(), s.getNombre(), p.getId(), p.getNombre(), p.getStock());
+                })
+                .toList();
+
+        System.out.printf("Franquicia (%d sucursales x %d productos)%n", SUCURSALES, PRODUCTOS);
+        medir(formatos, franquicia, Franquicia.class);
+        System.out.printf("List<ProductoMaxStockDTO> (%d elementos)%n", maxStock.size());
+        medir(formatos, maxStock, List.class, ProductoMaxStockDTO.class);
+    }
+
+    private static void medir(Map<String, ObjectMapper> formatos, Object valor, Class<?> tipo,
+                              Class<?>... parametros) throws Exception {
+        System.out.printf("  %-16s %12s %14s %14s%n", "formato", "bytes", "codificar ms", "decodificar ms");
+        for (Map.Entry<String, ObjectMapper> formato : formatos.entrySet()) {
+            ObjectMapper mapper = formato.getValue();
+            JavaType javaType = parametros.length == 0
+                    ? mapper.constructType(tipo)
+                    : mapper.getTypeFactory().constructParametricType(tipo, parametros);
+
+            byte[] bytes = mapper.writeValueAsBytes(valor);
+            assertEquals(valor, mapper.readValue(bytes, javaType));
+
+            long codificar = Long.MAX_VALUE;
+            long decodificar = Long.MAX_VALUE;
+            for (int i = 0; i < ITERACIONES; i++) {
+                long inicio = System.nanoTime();
+                bytes = mapper.writeValueAsBytes(valor);
+                codificar = Math.min(codificar, System.nanoTime() - inicio);
+
+                inicio = System.nanoTime();
+                mapper.readValue(bytes, javaType);
+                decodificar = Math.min(decodificar, System.nanoTime() - inicio);
+            }
+            System.out.printf("  %-16s %12d %14.3f %14.3f%n", formato.getKey(), bytes.length,
+                    codificar / 1e6, decodificar / 1e6);
+        }
+    }
+
+    private static Franquicia franquiciaGrande() {
+        Franquicia franquicia = new Franquicia();
+        franquicia.setId("64f0c2a1e4b0a1b2c3d4e5f6");
+        franquicia.setNombre("Franquicia grande");
+        List<Sucursal> sucursales = new ArrayList<>();
+        for (int s = 0; s < SUCURSALES; s++) {
+            Sucursal sucursal = new Sucursal();
+            sucursal.setId("01JABCDEF" + String.format("%011d", s));
+            sucursal.setNombre("Sucursal " + s);
+            long totalSucursal = 0;
+            for (int p = 0; p < PRODUCTOS; p++) {
+                Producto producto = new Producto();
+                producto.setId("01JABCDEF" + String.format("%05d%06d", s, p));
+                producto.setNombre("Producto " + p);
+                producto.setStock(p * 3);
+                sucursal.getProductos().add(producto);
+                totalSucursal += producto.getStock();
+            }
+            sucursal.setTotalStock(totalSucursal);
+            sucursales.add(sucursal);
+        }
+        franquicia.setSucursales(sucursales);
+        franquicia.setTotalStock(sucursales.stream().mapToLong(Sucursal::getTotalStock).sum());
+        return franquicia;
+    }
+}
@@ -0,0 +1,148 @@
+package com.prueba.franquicias_api.benchmark;
+
+import com.mongodb.MongoClientSettings;
+import com.prueba.franquicias_api.dto.SnapshotResultadoDTO;
+import com.prueba.franquicias_api.model.Franquicia;
+import com.prueba.franquicias_api.model.Producto;
+import com.prueba.franquicias_api.model.Sucursal;
+import com.prueba.franquicias_api.service.SnapshotService;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.util.unit.DataSize;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Rendimiento de {@link SnapshotService} en MB/s (BSON sin comprimir) y documentos/s sobre un
+ * dataset sintético escrito en un fichero con {@link FileChannel}. La importación usa los
+ * trabajadores en paralelo con un insertor que solo cuenta, para medir el pipeline sin MongoDB.
+ * <p>
+ * Ejecutar con {@code mvn test -Pbenchmark -Dtest=SnapshotBenchmark [-Dbench.snapshot.mb=4096]}.
+ */
+@Tag("benchmark")
+class SnapshotBenchmark {
+
+    private static final long MEGA = 1024 * 1024;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void exportarEImportar() throws Exception {
+        long objetivo = Long.getLong("bench.snapshot.mb", 1024) * MEGA;
+        SnapshotService snapshotService = new SnapshotService(mock(MongoOperations.class), 1000, DataSize.ofMegabytes(8),
+                Runtime.getRuntime().availableProcessors());
+        Path fichero = directorio.resolve("franquicias.bson.gz");
+
+        DatasetSintetico dataset = new DatasetSintetico(objetivo);
+        long inicio = System.nanoTime();
+        SnapshotResultadoDTO exportado;
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            exportado = snapshotService.escribir(dataset, canal);
+        }
+        imprimir("exportación", exportado, System.nanoTime() - inicio);
+        System.out.printf("%-12s %10.1f MB en disco (ratio %.1f)%n", "",
+                Files.size(fichero) / (double) MEGA, exportado.getBytes() / (double) Files.size(fichero));
+
+        AtomicLong insertados = new AtomicLong();
+        inicio = System.nanoTime();
+        SnapshotResultadoDTO importado;
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            snapshotService.validar(canal);
+        }
+        imprimir("validación", exportado, System.nanoTime() - inicio);
+
+        inicio = System.nanoTime();
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            importado = snapshotService.importar(canal, lote -> insertados.addAndGet(lote.size()));
+        }
+        imprimir("importación", importado, System.nanoTime() - inicio);
+
+        assertEquals(exportado, importado);
+        assertEquals(exportado.getDocumentos(), insertados.get());
+    }
+
+    private static void imprimir(String fase, SnapshotResultadoDTO resultado, long nanos) {
+        double segundos = nanos / 1e9;
+        System.out.printf("%-12s %10.1f MB/s %12.0f docs/s (%d docs, %.1f MB, %.1f s)%n", fase,
+                resultado.getBytes() / (double) MEGA / segundos, resultado.getDocumentos() / segundos,
+                resultado.getDocumentos(), resultado.getBytes() / (double) MEGA, segundos);
+    }
+
+    /**
+     * Recorre cíclicamente un conjunto fijo de franquicias de tamaño variable hasta alcanzar el
+     * volumen objetivo, para que el coste de generarlas no cuente en la medición.
+     */
+    private static final class DatasetSintetico implements Iterator<RawBsonDocument> {
+
+        private static final int DISTINTOS = 2000;
+
+        private final RawBsonDocument[] documentos = new RawBsonDocument[DISTINTOS];
+        private final long objetivo;
+        private long generados;
+        private int indice;
+
+        DatasetSintetico(long objetivo) {
+            this.objetivo = objetivo;
+            MongoMappingContext contexto = new MongoMappingContext();
+            contexto.afterPropertiesSet();
+            MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, contexto);
+            converter.afterPropertiesSet();
+            Codec<Document> codec = MongoClientSettings.getDefaultCodecRegistry().get(Document.class);
+            for (int i = 0; i < DISTINTOS; i++) {
+                Document documento = new Document();
+                converter.write(franquicia(i), documento);
+                documentos[i] = new RawBsonDocument(documento, codec);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return generados < objetivo;
+        }
+
+        @Override
+        public RawBsonDocument next() {
+            RawBsonDocument raw = documentos[indice++ % DISTINTOS];
+            generados += raw.getByteBuffer().remaining();
+            return raw;
+        }
+
+        private static Franquicia franquicia(int indice) {
+            Franquicia franquicia = new Franquicia();
+            franquicia.setId(new ObjectId().toHexString());
+            franquicia.setNombre("Franquicia " + indice);
+            for (int s = 0; s < 1 + indice % 10; s++) {
+                Sucursal sucursal = new Sucursal();
+                sucursal.setId(indice + "-" + s);
+                sucursal.setNombre("Sucursal " + s);
+                for (int p = 0; p < 20; p++) {
+                    Producto producto = new Producto();
+                    producto.setId(indice + "-" + s + "-" + p);
+                    producto.setNombre("Producto " + p);
+                    producto.setStock((indice * 31 + p) % 500);
+                    sucursal.getProductos().add(producto);
+                }
+                franquicia.getSucursales().add(sucursal);
+            }
+            return franquicia;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.prueba.franquicias_api.benchmark;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.prueba.franquicias_api.controller.FranquiciaController;
+import com.prueba.franquicias_api.model.Franquicia;
+import com.prueba.franquicias_api.service.FranquiciaService;
+import com.prueba.franquicias_api.tracing.MongoTracingCommandListener;
+import com.prueba.franquicias_api.tracing.RequestTracingFilter;
+import com.prueba.franquicias_api.tracing.TracingHandlerInterceptor;
+import com.prueba.franquicias_api.tracing.TracingResponseBodyAdvice;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Coste añadido por la traza a cada petición, comparando el mismo controlador con y sin ella (umbral
+ * alto: sin escribir en el log). Con traza intervienen {@link RequestTracingFilter},
+ * {@link TracingHandlerInterceptor}, {@link TracingResponseBodyAdvice} y {@link MongoTracingCommandListener};
+ * el servicio simula un {@code find} notificando al listener los eventos que crearía el driver, que solo
+ * los construye si hay algún listener registrado.
+ * <p>
+ * Ejecutar con {@code mvn test -Pbenchmark -Dtest=TracingOverheadBenchmark}.
+ */
+@Tag("benchmark")
+class TracingOverheadBenchmark {
+
+    private static final int PETICIONES = 50_000;
+    private static final int RONDAS = 5;
+
+    @Test
+    void sobrecostePorPeticion() throws Exception {
+        MockMvc sinTraza = MockMvcBuilders.standaloneSetup(controlador(null)).build();
+        MockMvc conTraza = MockMvcBuilders.standaloneSetup(controlador(new MongoTracingCommandListener()))
+                .setControllerAdvice(new TracingResponseBodyAdvice())
+                .addInterceptors(new TracingHandlerInterceptor())
+                .addFilters(new RequestTracingFilter(Duration.ofHours(1)))
+                .build();
+
+        double base = Double.MAX_VALUE;
+        double trazado = Double.MAX_VALUE;
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            base = Math.min(base, medir(sinTraza));
+            trazado = Math.min(trazado, medir(conTraza));
+        }
+        System.out.printf("sin traza %8.2f µs/petición%n", base);
+        System.out.printf("con traza %8.2f µs/petición (+%.2f µs, %.1f%%)%n",
+                trazado, trazado - base, (trazado - base) / base * 100);
+    }
+
+    /**
+     * @param listener Listener de comandos registrado en el cliente de MongoDB, o {@code null} si no hay.
+     */
+    private static FranquiciaController controlador(CommandListener listener) {
+        Franquicia franquicia = new Franquicia();
+        franquicia.setId("1");
+        franquicia.setNombre("Franquicia");
+        RawBsonDocument comando = new RawBsonDocument(new BsonDocument("find", new BsonString("franquicias"))
+                .append("filter", new BsonDocument()), new BsonDocumentCodec());
+        RawBsonDocument respuesta = new RawBsonDocument(new BsonDocument("cursor", new BsonDocument("id", new BsonInt32(0))
+                .append("firstBatch", new BsonArray(List.of(new BsonDocument("_id", new BsonString("1"))
+                        .append("nombre", new BsonString("Franquicia"))))))
+                .append("ok", new BsonInt32(1)), new BsonDocumentCodec());
+        ConnectionDescription conexion = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+        FranquiciaService service = mock(FranquiciaService.class);
+        when(service.listarFranquicias()).thenAnswer(inv -> {
+            if (listener != null) {
+                long inicio = System.nanoTime();
+                listener.commandStarted(new CommandStartedEvent(null, 1, 1, conexion, "franquiciaDB", "find", comando));
+                listener.commandSucceeded(new CommandSucceededEvent(null, 1, 1, conexion, "franquiciaDB", "find",
+                        respuesta, System.nanoTime() - inicio));
+            }
+            return List.of(franquicia);
+        });
+        return new FranquiciaController(service);
+    }
+
+    private static double medir(MockMvc mockMvc) throws Exception {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < PETICIONES; i++) {
+            mockMvc.perform(get("/api/franquicias"));
+        }
+        return (System.nanoTime() - inicio) / 1e3 / PETICIONES;
+    }
+}
@@ -0,0 +1,64 @@
+package com.prueba.franquicias_api.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void intentarAdquirir_rechazaPorEncimaDelLimite() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(presupuesto(2, Duration.ofSeconds(1)));
+
+        assertTrue(limiter.intentarAdquirir());
+        assertTrue(limiter.intentarAdquirir());
+        assertFalse(limiter.intentarAdquirir());
+
+        limiter.liberar(0);
+        assertTrue(limiter.intentarAdquirir());
+    }
+
+    @Test
+    void liberar_conLatenciaAlta_reduceElLimite() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(presupuesto(20, Duration.ofMillis(1)));
+
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(2);
+            limiter.intentarAdquirir();
+            limiter.liberar(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+
+        assertTrue(limiter.getLimite() < 20, "límite: " + limiter.getLimite());
+        assertEquals(0, limiter.getEnVuelo());
+    }
+
+    @Test
+    void liberar_conLatenciaBajaYLimiteAprovechado_aumentaElLimite() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(presupuesto(4, Duration.ofSeconds(1)));
+
+        for (int ronda = 0; ronda < 50; ronda++) {
+            int adquiridas = 0;
+            while (limiter.intentarAdquirir()) {
+                adquiridas++;
+            }
+            for (int i = 0; i < adquiridas; i++) {
+                limiter.liberar(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+
+        assertTrue(limiter.getLimite() > 4, "límite: " + limiter.getLimite());
+        assertTrue(limiter.getLimite() <= 50);
+    }
+
+    private static ConcurrencyLimitProperties.Presupuesto presupuesto(int inicial, Duration objetivo) {
+        ConcurrencyLimitProperties.Presupuesto presupuesto = new ConcurrencyLimitProperties.Presupuesto();
+        presupuesto.setLimiteInicial(inicial);
+        presupuesto.setLimiteMinimo(1);
+        presupuesto.setLimiteMaximo(50);
+        presupuesto.setLatenciaObjetivo(objetivo);
+        return presupuesto;
+    }
+}
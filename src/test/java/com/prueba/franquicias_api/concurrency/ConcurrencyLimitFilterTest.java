@@ -0,0 +1,171 @@
+package com.prueba.franquicias_api.concurrency;
+
+import com.prueba.franquicias_api.controller.FranquiciaController;
+import com.prueba.franquicias_api.id.TimeOrderedIdGenerator;
+import com.prueba.franquicias_api.repository.FranquiciaRepository;
+import com.prueba.franquicias_api.service.FranquiciaService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Sobrecarga contra un repositorio que simula un MongoDB con capacidad limitada: como mucho
+ * {@code CAPACIDAD} consultas a la vez de {@code SERVICIO_MS} cada una; el resto hace cola.
+ * Las latencias se miden tras {@code CALENTAMIENTO}, cuando el límite ya se ha adaptado.
+ * <p>
+ * La prueba de carga depende del reloj y de los núcleos disponibles, así que va en el grupo
+ * {@code benchmark}: {@code mvn test -Pbenchmark -Dtest=ConcurrencyLimitFilterTest}.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private static final int CAPACIDAD = 2;
+    private static final long SERVICIO_MS = 10;
+    private static final int CLIENTES = 32;
+    private static final Duration CALENTAMIENTO = Duration.ofMillis(500);
+    private static final Duration DURACION = Duration.ofMillis(2000);
+
+    @Test
+    @Tag("benchmark")
+    void sobrecarga_mantieneAcotadoElP99DeLasAdmitidas() throws Exception {
+        Resultado sinLimite = cargar(construirMockMvc(null));
+        Resultado conLimite = cargar(construirMockMvc(filtro(Duration.ofMillis(40))));
+
+        assertEquals(0, sinLimite.rechazadas);
+        assertTrue(conLimite.rechazadas > 0, "se esperaban peticiones rechazadas");
+        assertTrue(conLimite.admitidas() > 0);
+        // Con todos los clientes en cola, cada petición espera CLIENTES / CAPACIDAD servicios
+        long colaCompletaMs = CLIENTES / CAPACIDAD * SERVICIO_MS;
+        String latencias = "p99 sin límite " + sinLimite.p99Ms() + " ms, con límite " + conLimite.p99Ms() + " ms";
+        assertTrue(conLimite.p99Ms() < colaCompletaMs, latencias);
+        assertTrue(conLimite.p99Ms() < 0.75 * sinLimite.p99Ms(), latencias);
+    }
+
+    @Test
+    void rechazo_devuelve503ConRetryAfter() throws Exception {
+        ConcurrencyLimitProperties.Presupuesto lleno = presupuesto(Duration.ofSeconds(1));
+        AdaptiveConcurrencyLimiter lecturas = new AdaptiveConcurrencyLimiter(lleno);
+        while (lecturas.intentarAdquirir()) {
+            // Ocupamos todo el presupuesto de lecturas
+        }
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(lecturas,
+                new AdaptiveConcurrencyLimiter(lleno), Duration.ofSeconds(2));
+
+        MockHttpServletResponse respuesta = construirMockMvc(filter)
+                .perform(get("/api/franquicias"))
+                .andReturn().getResponse();
+
+        assertEquals(503, respuesta.getStatus());
+        assertEquals("2", respuesta.getHeader("Retry-After"));
+        assertTrue(respuesta.getContentAsString().contains("error"));
+    }
+
+    private static ConcurrencyLimitFilter filtro(Duration latenciaObjetivo) {
+        return new ConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimiter(presupuesto(latenciaObjetivo)),
+                new AdaptiveConcurrencyLimiter(presupuesto(latenciaObjetivo)),
+                Duration.ofSeconds(1));
+    }
+
+    private static ConcurrencyLimitProperties.Presupuesto presupuesto(Duration latenciaObjetivo) {
+        ConcurrencyLimitProperties.Presupuesto presupuesto = new ConcurrencyLimitProperties.Presupuesto();
+        presupuesto.setLimiteInicial(CLIENTES);
+        presupuesto.setLimiteMinimo(1);
+        presupuesto.setLimiteMaximo(100);
+        presupuesto.setLatenciaObjetivo(latenciaObjetivo);
+        presupuesto.setFactorReduccion(0.8);
+        return presupuesto;
+    }
+
+    private static MockMvc construirMockMvc(ConcurrencyLimitFilter filter) {
+        FranquiciaService service = new FranquiciaService(repositorioLento(), new TimeOrderedIdGenerator());
+        var builder = MockMvcBuilders.standaloneSetup(new FranquiciaController(service));
+        if (filter != null) {
+            builder.addFilters(filter);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Repositorio cuyo {@code findAll} compite por {@code CAPACIDAD} huecos en orden de llegada.
+     */
+    private static FranquiciaRepository repositorioLento() {
+        Semaphore mongo = new Semaphore(CAPACIDAD, true);
+        return (FranquiciaRepository) Proxy.newProxyInstance(
+                FranquiciaRepository.class.getClassLoader(),
+                new Class<?>[]{FranquiciaRepository.class},
+                (proxy, metodo, args) -> {
+                    if (!metodo.getName().equals("findAll") || args != null) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    mongo.acquire();
+                    try {
+                        Thread.sleep(SERVICIO_MS);
+                    } finally {
+                        mongo.release();
+                    }
+                    return List.of();
+                });
+    }
+
+    private static Resultado cargar(MockMvc mockMvc) throws Exception {
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+        long desde = System.nanoTime() + CALENTAMIENTO.toNanos();
+        long fin = System.nanoTime() + DURACION.toNanos();
+        try {
+            List<Future<Resultado>> futuros = new ArrayList<>();
+            for (int c = 0; c < CLIENTES; c++) {
+                futuros.add(clientes.submit(() -> {
+                    Resultado resultado = new Resultado();
+                    while (System.nanoTime() < fin) {
+                        long inicio = System.nanoTime();
+                        int estado = mockMvc.perform(get("/api/franquicias")).andReturn().getResponse().getStatus();
+                        if (estado == 200) {
+                            if (inicio >= desde) {
+                                resultado.latenciasNanos.add(System.nanoTime() - inicio);
+                            }
+                        } else {
+                            assertEquals(503, estado);
+                            resultado.rechazadas++;
+                            Thread.sleep(5);
+                        }
+                    }
+                    return resultado;
+                }));
+            }
+            Resultado total = new Resultado();
+            for (Future<Resultado> futuro : futuros) {
+                Resultado parcial = futuro.get();
+                total.latenciasNanos.addAll(parcial.latenciasNanos);
+                total.rechazadas += parcial.rechazadas;
+            }
+            return total;
+        } finally {
+            clientes.shutdownNow();
+        }
+    }
+
+    private static final class Resultado {
+        private final List<Long> latenciasNanos = new ArrayList<>();
+        private int rechazadas;
+
+        int admitidas() {
+            return latenciasNanos.size();
+        }
+
+        long p99Ms() {
+            List<Long> ordenadas = new ArrayList<>(latenciasNanos);
+            Collections.sort(ordenadas);
+            return TimeUnit.NANOSECONDS.toMillis(ordenadas.get((int) Math.ceil(ordenadas.size() * 0.99) - 1));
+        }
+    }
+}
@@ -1,21 +1,27 @@
 package com.prueba.franquicias_api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.prueba.franquicias_api.dto.StockTotalesDTO;
 import com.prueba.franquicias_api.model.Franquicia;
 import com.prueba.franquicias_api.model.Sucursal;
 import com.prueba.franquicias_api.model.Producto;
+import com.prueba.franquicias_api.serialization.BinaryFormatsConfig;
 import com.prueba.franquicias_api.service.FranquiciaService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.*;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -104,6 +110,18 @@ class FranquiciaControllerTest {
                 .andExpect(jsonPath("$.id").value("1"));
     }
 
+    @Test
+    void actualizarStock_conEscrituraConcurrente_devuelve409() throws Exception {
+        when(franquiciaService.actualizarStock("1", "2", "3", 20))
+                .thenThrow(new OptimisticLockingFailureException("versión 4 no encontrada"));
+
+        mockMvc.perform(patch("/api/franquicias/1/sucursales/2/productos/3/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stock\":20}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
     @Test
     void eliminarProducto_deberiaRetornarFranquiciaActualizada() throws Exception {
         Franquicia franquicia = new Franquicia();
@@ -115,4 +133,83 @@ class FranquiciaControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value("1"));
     }
+
+    @Test
+    void stockTotal_devuelveTotalesDeFranquiciaYSucursales() throws Exception {
+        StockTotalesDTO totales = new StockTotalesDTO("1", "Franquicia", 30,
+                List.of(new StockTotalesDTO.SucursalStockDTO("s1", "Sucursal", 30)));
+
+        when(franquiciaService.obtenerTotalesStock("1")).thenReturn(totales);
+
+        mockMvc.perform(get("/api/franquicias/1/stock-total"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalStock").value(30))
+                .andExpect(jsonPath("$.sucursales[0].sucursalId").value("s1"))
+                .andExpect(jsonPath("$.sucursales[0].totalStock").value(30));
+    }
+
+    @Test
+    void listar_conAcceptCbor_devuelveCbor() throws Exception {
+        when(franquiciaService.listarFranquicias()).thenReturn(List.of(franquiciaConProducto()));
+
+        byte[] cuerpo = mockMvc.perform(get("/api/franquicias").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Franquicia[] leidas = new ObjectMapper(new CBORFactory()).readValue(cuerpo, Franquicia[].class);
+        assertEquals(franquiciaConProducto(), leidas[0]);
+    }
+
+    @Test
+    void listar_conAcceptSmile_devuelveSmile() throws Exception {
+        when(franquiciaService.listarFranquicias()).thenReturn(List.of(franquiciaConProducto()));
+
+        byte[] cuerpo = mockMvc.perform(get("/api/franquicias").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Franquicia[] leidas = new ObjectMapper(new SmileFactory()).readValue(cuerpo, Franquicia[].class);
+        assertEquals(franquiciaConProducto(), leidas[0]);
+    }
+
+    @Test
+    void listar_conAcceptJsonCompacto_noIndenta() throws Exception {
+        when(franquiciaService.listarFranquicias()).thenReturn(List.of(franquiciaConProducto()));
+
+        mockMvc.perform(get("/api/franquicias").accept(BinaryFormatsConfig.COMPACT_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatsConfig.COMPACT_JSON))
+                .andExpect(content().string(not(containsString("\n"))))
+                .andExpect(jsonPath("$[0].sucursales[0].productos[0].stock").value(7));
+    }
+
+    @Test
+    void listar_sinAccept_sigueDevolviendoJson() throws Exception {
+        when(franquiciaService.listarFranquicias()).thenReturn(List.of(franquiciaConProducto()));
+
+        mockMvc.perform(get("/api/franquicias"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(containsString("\n")));
+    }
+
+    private static Franquicia franquiciaConProducto() {
+        Producto producto = new Producto();
+        producto.setId("p1");
+        producto.setNombre("Producto");
+        producto.setStock(7);
+
+        Sucursal sucursal = new Sucursal();
+        sucursal.setId("s1");
+        sucursal.setNombre("Sucursal");
+        sucursal.getProductos().add(producto);
+
+        Franquicia franquicia = new Franquicia();
+        franquicia.setId("1");
+        franquicia.setNombre("Franquicia");
+        franquicia.getSucursales().add(sucursal);
+        return franquicia;
+    }
 }
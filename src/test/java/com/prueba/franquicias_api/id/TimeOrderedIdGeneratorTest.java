@@ -0,0 +1,50 @@
+package com.prueba.franquicias_api.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+    @Test
+    void nextId_esCompactoYOrdenadoPorTiempo() {
+        String anterior = generator.nextId();
+        assertEquals(20, anterior.length());
+        for (int i = 0; i < 100_000; i++) {
+            String actual = generator.nextId();
+            assertTrue(actual.substring(0, 10).compareTo(anterior.substring(0, 10)) >= 0);
+            anterior = actual;
+        }
+    }
+
+    @Test
+    void nextId_noRepiteEntreHilos() throws Exception {
+        int hilos = 8;
+        int porHilo = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<List<String>>> futuros = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                futuros.add(executor.submit(() -> {
+                    List<String> ids = new ArrayList<>(porHilo);
+                    for (int i = 0; i < porHilo; i++) {
+                        ids.add(generator.nextId());
+                    }
+                    return ids;
+                }));
+            }
+            Set<String> todos = new HashSet<>();
+            for (Future<List<String>> futuro : futuros) {
+                todos.addAll(futuro.get());
+            }
+            assertEquals(hilos * porHilo, todos.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.prueba.franquicias_api.repository;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.prueba.franquicias_api.model.Franquicia;
+import com.prueba.franquicias_api.model.Producto;
+import com.prueba.franquicias_api.model.Sucursal;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta cada consulta de {@link FranquiciaRepository} contra un MongoDB local, captura el
+ * comando {@code find} que genera y comprueba con {@code explain} que usa un índice y no un COLLSCAN.
+ * <p>
+ * Se ejecuta con {@code mvn test -Pmongodb}. Por defecto arranca mongod en un contenedor con
+ * Testcontainers (necesita Docker, disponible en los runners de CI); con
+ * {@code -Dfranquicias.test.mongodb.uri=...} usa uno existente.
+ */
+@Tag("mongodb")
+class FranquiciaRepositoryExplainTest {
+
+    private static final String BASE_DE_DATOS = "explain-test";
+    private static final List<BsonDocument> comandos = new ArrayList<>();
+
+    private static final DockerImageName IMAGEN = DockerImageName.parse("mongo:7.0.14");
+
+    private static MongoDBContainer mongod;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static FranquiciaRepository repository;
+
+    @BeforeAll
+    static void arrancarMongo() {
+        String uri = System.getProperty("franquicias.test.mongodb.uri");
+        if (uri == null) {
+            mongod = new MongoDBContainer(IMAGEN);
+            mongod.start();
+            uri = mongod.getConnectionString();
+        }
+        CommandListener capturador = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if ("find".equals(event.getCommandName())) {
+                    synchronized (comandos) {
+                        comandos.add(event.getCommand().clone());
+                    }
+                }
+            }
+        };
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .addCommandListener(capturador)
+                .build());
+        mongoTemplate = new MongoTemplate(client, BASE_DE_DATOS);
+        mongoTemplate.dropCollection(Franquicia.class);
+        new FranquiciaIndexInitializer(mongoTemplate).asegurarIndices();
+        repository = new MongoRepositoryFactory(mongoTemplate).getRepository(FranquiciaRepository.class);
+
+        for (int f = 0; f < 50; f++) {
+            Franquicia franquicia = new Franquicia();
+            franquicia.setNombre("Franquicia " + f);
+            for (int s = 0; s < 5; s++) {
+                Sucursal sucursal = new Sucursal();
+                sucursal.setId("s-" + f + "-" + s);
+                sucursal.setNombre("Sucursal " + s);
+                for (int p = 0; p < 10; p++) {
+                    Producto producto = new Producto();
+                    producto.setId("p-" + f + "-" + s + "-" + p);
+                    producto.setNombre("Producto " + p);
+                    producto.setStock(p * f);
+                    sucursal.getProductos().add(producto);
+                }
+                franquicia.getSucursales().add(sucursal);
+            }
+            repository.save(franquicia);
+        }
+    }
+
+    @AfterAll
+    static void detenerMongo() {
+        if (client != null) {
+            mongoTemplate.dropCollection(Franquicia.class);
+            client.close();
+        }
+        if (mongod != null) {
+            mongod.stop();
+        }
+    }
+
+    static Stream<Named<Consumer<FranquiciaRepository>>> consultas() {
+        return Stream.of(
+                Named.of("findById", r -> r.findById("000000000000000000000000")),
+                Named.of("findTotalesStockById", r -> r.findTotalesStockById("000000000000000000000000")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("consultas")
+    void consulta_usaIndice(Consumer<FranquiciaRepository> consulta) {
+        synchronized (comandos) {
+            comandos.clear();
+        }
+        consulta.accept(repository);
+
+        BsonDocument find;
+        synchronized (comandos) {
+            assertEquals(1, comandos.size(), "Se esperaba un único comando find");
+            find = comandos.get(0);
+        }
+        for (String campo : List.of("$db", "lsid", "$clusterTime", "$readPreference")) {
+            find.remove(campo);
+        }
+
+        BsonDocument plan = client.getDatabase(BASE_DE_DATOS).runCommand(
+                new BsonDocument("explain", find).append("verbosity", new BsonString("queryPlanner")),
+                BsonDocument.class);
+        BsonDocument ganador = plan.getDocument("queryPlanner").getDocument("winningPlan");
+
+        List<String> etapas = new ArrayList<>();
+        recogerEtapas(ganador, etapas);
+        assertFalse(etapas.contains("COLLSCAN"), () -> "COLLSCAN en " + find.toJson() + ": " + ganador.toJson());
+        assertTrue(etapas.stream().anyMatch(e -> e.equals("IXSCAN") || e.equals("IDHACK") || e.startsWith("EXPRESS")),
+                () -> "Sin índice en " + find.toJson() + ": " + ganador.toJson());
+    }
+
+    private static void recogerEtapas(BsonValue valor, List<String> etapas) {
+        if (valor.isDocument()) {
+            BsonDocument documento = valor.asDocument();
+            if (documento.isString("stage")) {
+                etapas.add(documento.getString("stage").getValue());
+            }
+            documento.values().forEach(v -> recogerEtapas(v, etapas));
+        } else if (valor.isArray()) {
+            valor.asArray().forEach(v -> recogerEtapas(v, etapas));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.prueba.franquicias_api.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MongoLeaseTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @InjectMocks
+    private MongoLease lease;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void adquirir_libreOCaducada_tomaLaConcesion() {
+        when(mongoOperations.upsert(any(Query.class), any(Update.class), eq(MongoLease.COLECCION)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertTrue(lease.adquirir("tarea", Duration.ofMinutes(5)));
+
+        ArgumentCaptor<Query> filtro = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).upsert(filtro.capture(), update.capture(), eq(MongoLease.COLECCION));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        String propietario = set.getString("propietario");
+        assertTrue(set.get("expira", Date.class).after(new Date()));
+
+        Document consulta = filtro.getValue().getQueryObject();
+        assertEquals("tarea", consulta.get("_id"));
+        List<?> condiciones = consulta.getList("$or", Object.class);
+        assertEquals(new Document("propietario", propietario), condiciones.get(0));
+    }
+
+    @Test
+    void adquirir_vigenteDeOtroNodo_devuelveFalse() {
+        when(mongoOperations.upsert(any(Query.class), any(Update.class), eq(MongoLease.COLECCION)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        assertFalse(lease.adquirir("tarea", Duration.ofMinutes(5)));
+    }
+}
@@ -0,0 +1,234 @@
+package com.prueba.franquicias_api.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import com.prueba.franquicias_api.controller.FranquiciaController;
+import com.prueba.franquicias_api.exception.GlobalExceptionHandler;
+import com.prueba.franquicias_api.id.TimeOrderedIdGenerator;
+import com.prueba.franquicias_api.model.Franquicia;
+import com.prueba.franquicias_api.repository.FranquiciaRepository;
+import com.prueba.franquicias_api.service.FranquiciaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Enrutado de lecturas contra un replica set simulado en memoria: el secundario aplica cada
+ * escritura del primario con un retraso fijo.
+ */
+class ReadRoutingInterceptorTest {
+
+    private static final Duration RETRASO = Duration.ofMillis(300);
+
+    @Test
+    void lecturaEnrutada_puedeIrRetrasadaHastaQueReplica() throws Exception {
+        ReplicaSetFalso replicaSet = new ReplicaSetFalso(RETRASO);
+        MockMvc mockMvc = construirMockMvc(replicaSet);
+
+        String id = crear(mockMvc, "Franquicia A");
+
+        mockMvc.perform(get("/api/franquicias")).andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/franquicias/{id}/productos-max-stock", id)).andExpect(status().isNotFound());
+
+        Thread.sleep(RETRASO.toMillis() + 100);
+
+        mockMvc.perform(get("/api/franquicias")).andExpect(jsonPath("$[0].id").value(id));
+        mockMvc.perform(get("/api/franquicias/{id}/productos-max-stock", id)).andExpect(status().isOk());
+        assertEquals(4, replicaSet.lecturasSecundario);
+    }
+
+    @Test
+    void cabeceraPrimario_leeLoRecienEscrito() throws Exception {
+        ReplicaSetFalso replicaSet = new ReplicaSetFalso(RETRASO);
+        MockMvc mockMvc = construirMockMvc(replicaSet);
+
+        String id = crear(mockMvc, "Franquicia A");
+
+        mockMvc.perform(get("/api/franquicias")
+                        .header(ReadRoutingInterceptor.CABECERA_CONSISTENCIA, ReadRoutingInterceptor.CONSISTENCIA_PRIMARIO))
+                .andExpect(jsonPath("$[0].id").value(id));
+        assertEquals(0, replicaSet.lecturasSecundario);
+    }
+
+    @Test
+    void mutacionesYEndpointsNoConfigurados_leenDelPrimario() throws Exception {
+        ReplicaSetFalso replicaSet = new ReplicaSetFalso(RETRASO);
+        MockMvc mockMvc = construirMockMvc(replicaSet);
+
+        String id = crear(mockMvc, "Franquicia A");
+
+        // agregarSucursal lee la franquicia antes de guardarla: en el secundario aún no existe
+        mockMvc.perform(post("/api/franquicias/{id}/sucursales", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\":\"Centro\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sucursales", hasSize(1)));
+        mockMvc.perform(get("/api/franquicias/{id}/stock-total", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sucursales", hasSize(1)));
+        assertEquals(0, replicaSet.lecturasSecundario);
+    }
+
+    @Test
+    void secundarioMasRetrasadoQueMaxStaleness_leeDelPrimario() throws Exception {
+        ReplicaSetFalso replicaSet = new ReplicaSetFalso(Duration.ofSeconds(120));
+        MockMvc mockMvc = construirMockMvc(replicaSet);
+
+        String id = crear(mockMvc, "Franquicia A");
+
+        mockMvc.perform(get("/api/franquicias")).andExpect(jsonPath("$[0].id").value(id));
+        assertEquals(0, replicaSet.lecturasSecundario);
+    }
+
+    @Test
+    void alTerminarLaPeticion_limpiaLaPreferencia() throws Exception {
+        MockMvc mockMvc = construirMockMvc(new ReplicaSetFalso(RETRASO));
+
+        mockMvc.perform(get("/api/franquicias")).andExpect(status().isOk());
+
+        assertNull(ReadRouting.actual());
+    }
+
+    @Test
+    void maxStalenessMenorQue90s_esRechazado() {
+        ReadRoutingProperties properties = properties();
+        properties.setMaxStaleness(Duration.ofSeconds(30));
+
+        assertThrows(IllegalArgumentException.class, () -> new ReadRoutingInterceptor(properties));
+    }
+
+    @Test
+    void rutaSinEndpoint_fallaLaValidacion() {
+        ReadRoutingInterceptor interceptor = new ReadRoutingInterceptor(properties());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                interceptor.validarRutas(Set.of("GET /api/franquicias", "GET /api/franquicias/{id}/productos-max-stock")));
+        assertTrue(error.getMessage().contains("GET /api/franquicias/{franquiciaId}/productos-max-stock"));
+
+        interceptor.validarRutas(Set.of("GET /api/franquicias", "GET /api/franquicias/{franquiciaId}/productos-max-stock"));
+    }
+
+    @Test
+    void rutaQueNoEsGet_esRechazada() {
+        ReadRoutingProperties properties = properties();
+        properties.getEndpoints().add(endpoint("POST /api/franquicias", "secondaryPreferred"));
+
+        assertThrows(IllegalArgumentException.class, () -> new ReadRoutingInterceptor(properties));
+    }
+
+    private static ReadRoutingProperties properties() {
+        ReadRoutingProperties properties = new ReadRoutingProperties();
+        properties.setMaxStaleness(Duration.ofSeconds(90));
+        properties.setEndpoints(new ArrayList<>(List.of(
+                endpoint("GET /api/franquicias", "secondaryPreferred"),
+                endpoint("GET /api/franquicias/{franquiciaId}/productos-max-stock", "secondaryPreferred"))));
+        return properties;
+    }
+
+    private static ReadRoutingProperties.Endpoint endpoint(String ruta, String modo) {
+        ReadRoutingProperties.Endpoint endpoint = new ReadRoutingProperties.Endpoint();
+        endpoint.setRuta(ruta);
+        endpoint.setModo(modo);
+        return endpoint;
+    }
+
+    private static MockMvc construirMockMvc(ReplicaSetFalso replicaSet) {
+        FranquiciaService service = new FranquiciaService(replicaSet.repositorio(), new TimeOrderedIdGenerator());
+        return MockMvcBuilders.standaloneSetup(new FranquiciaController(service))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addInterceptors(new ReadRoutingInterceptor(properties()))
+                .build();
+    }
+
+    private static String crear(MockMvc mockMvc, String nombre) throws Exception {
+        String respuesta = mockMvc.perform(post("/api/franquicias")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\":\"" + nombre + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return new ObjectMapper().readTree(respuesta).get("id").asText();
+    }
+
+    /**
+     * Primario y un secundario que ve cada escritura {@code retraso} después. Como el driver, las
+     * lecturas {@code secondaryPreferred} solo van al secundario si su retraso no supera maxStaleness.
+     */
+    private static final class ReplicaSetFalso {
+
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final Duration retraso;
+        private final List<Escritura> oplog = new ArrayList<>();
+        private int lecturasSecundario;
+
+        ReplicaSetFalso(Duration retraso) {
+            this.retraso = retraso;
+        }
+
+        FranquiciaRepository repositorio() {
+            return (FranquiciaRepository) Proxy.newProxyInstance(
+                    FranquiciaRepository.class.getClassLoader(),
+                    new Class<?>[]{FranquiciaRepository.class},
+                    (proxy, metodo, args) -> switch (metodo.getName()) {
+                        case "save" -> guardar((Franquicia) args[0]);
+                        case "findAll" -> new ArrayList<>(leer().values());
+                        case "findById", "findTotalesStockById" -> Optional.ofNullable(leer().get((String) args[0]));
+                        default -> throw new UnsupportedOperationException(metodo.getName());
+                    });
+        }
+
+        private synchronized Franquicia guardar(Franquicia franquicia) {
+            if (franquicia.getId() == null) {
+                franquicia.setId(UUID.randomUUID().toString());
+            }
+            franquicia.setVersion(franquicia.getVersion() == null ? 0 : franquicia.getVersion() + 1);
+            oplog.add(new Escritura(System.nanoTime(), copiar(franquicia)));
+            return franquicia;
+        }
+
+        private synchronized Map<String, Franquicia> leer() {
+            long hasta = System.nanoTime();
+            if (leeDelSecundario(ReadRouting.actual())) {
+                lecturasSecundario++;
+                hasta -= retraso.toNanos();
+            }
+            Map<String, Franquicia> vista = new LinkedHashMap<>();
+            for (Escritura escritura : oplog) {
+                if (escritura.instante <= hasta) {
+                    vista.put(escritura.franquicia.getId(), copiar(escritura.franquicia));
+                }
+            }
+            return vista;
+        }
+
+        private boolean leeDelSecundario(ReadPreference preferencia) {
+            if (!(preferencia instanceof TaggableReadPreference taggable)) {
+                return false;
+            }
+            Long maxStaleness = taggable.getMaxStaleness(TimeUnit.MILLISECONDS);
+            return maxStaleness == null || retraso.toMillis() <= maxStaleness;
+        }
+
+        private Franquicia copiar(Franquicia franquicia) {
+            Franquicia copia = mapper.convertValue(franquicia, Franquicia.class);
+            copia.setVersion(franquicia.getVersion());
+            return copia;
+        }
+
+        private record Escritura(long instante, Franquicia franquicia) {
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.prueba.franquicias_api.routing;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+class RoutingMongoTemplateTest {
+
+    private MongoClient client;
+    private RoutingMongoTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        // El cliente no conecta hasta la primera operación
+        client = MongoClients.create("mongodb://localhost:27017");
+        template = new RoutingMongoTemplate(new SimpleMongoClientDatabaseFactory(client, "franquiciaDB"),
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadRouting.limpiar();
+        client.close();
+    }
+
+    @Test
+    void conPreferenciaEnrutada_laAplicaALaColeccion() {
+        ReadPreference secundario = ReadPreference.valueOf("secondaryPreferred", List.of(), 90, TimeUnit.SECONDS);
+        @SuppressWarnings("unchecked")
+        MongoCollection<Document> coleccion = mock(MongoCollection.class);
+        @SuppressWarnings("unchecked")
+        MongoCollection<Document> enrutada = mock(MongoCollection.class);
+        when(coleccion.withReadPreference(secundario)).thenReturn(enrutada);
+
+        ReadRouting.usar(secundario);
+
+        assertSame(enrutada, template.prepareCollection(coleccion));
+    }
+
+    @Test
+    void sinPreferenciaEnrutada_dejaLaColeccionIntacta() {
+        @SuppressWarnings("unchecked")
+        MongoCollection<Document> coleccion = mock(MongoCollection.class);
+
+        assertSame(coleccion, template.prepareCollection(coleccion));
+        verify(coleccion, never()).withReadPreference(any());
+    }
+}
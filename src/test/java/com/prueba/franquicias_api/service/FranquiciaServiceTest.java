@@ -1,7 +1,11 @@
 package com.prueba.franquicias_api.service;
 
+import com.prueba.franquicias_api.dto.StockTotalesDTO;
 import com.prueba.franquicias_api.exception.FranquiciaNotFoundException;
+import com.prueba.franquicias_api.id.IdGenerator;
+import com.prueba.franquicias_api.id.TimeOrderedIdGenerator;
 import com.prueba.franquicias_api.model.Franquicia;
+import com.prueba.franquicias_api.model.Producto;
 import com.prueba.franquicias_api.model.Sucursal;
 import com.prueba.franquicias_api.repository.FranquiciaRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +22,9 @@ class FranquiciaServiceTest {
     @Mock
     private FranquiciaRepository franquiciaRepository;
 
+    @Spy
+    private IdGenerator idGenerator = new TimeOrderedIdGenerator();
+
     @InjectMocks
     private FranquiciaService franquiciaService;
 
@@ -49,6 +56,38 @@ class FranquiciaServiceTest {
         });
     }
 
+    @Test
+    void crearFranquicia_conSucursalesNulas_guardaListaVacia() {
+        Franquicia franquicia = new Franquicia();
+        franquicia.setNombre("Mi Franquicia");
+        franquicia.setSucursales(null);
+
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        Franquicia result = franquiciaService.crearFranquicia(franquicia);
+
+        assertTrue(result.getSucursales().isEmpty());
+        assertEquals(0, result.getTotalStock());
+    }
+
+    @Test
+    void crearFranquicia_conProductosNulos_guardaSucursalSinProductos() {
+        Sucursal sucursal = new Sucursal();
+        sucursal.setNombre("Sucursal");
+        sucursal.setProductos(null);
+        Franquicia franquicia = new Franquicia();
+        franquicia.setNombre("Mi Franquicia");
+        franquicia.getSucursales().add(sucursal);
+
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.crearFranquicia(franquicia);
+
+        assertNotNull(sucursal.getId());
+        assertTrue(sucursal.getProductos().isEmpty());
+        assertEquals(0, sucursal.getTotalStock());
+    }
+
     @Test
     void listarFranquicias_retornaListaDesdeRepositorio() {
         List<Franquicia> lista = Arrays.asList(new Franquicia(), new Franquicia());
@@ -78,6 +117,203 @@ class FranquiciaServiceTest {
         assertEquals("Sucursal Nueva", result.getSucursales().get(0).getNombre());
     }
 
+    @Test
+    void agregarSucursal_sinId_asignaIdsASucursalYProductos() {
+        Franquicia franquicia = new Franquicia();
+        franquicia.setId("1");
+
+        Producto producto = new Producto();
+        producto.setNombre("Producto");
+        Sucursal sucursal = new Sucursal();
+        sucursal.setNombre("Sucursal");
+        sucursal.getProductos().add(producto);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.agregarSucursal("1", sucursal);
+
+        assertNotNull(sucursal.getId());
+        assertNotNull(producto.getId());
+        verify(idGenerator, times(2)).nextId();
+    }
+
+    @Test
+    void agregarSucursal_conProductosNulos_agregaSucursalSinProductos() {
+        Franquicia franquicia = new Franquicia();
+        franquicia.setId("1");
+
+        Sucursal sucursal = new Sucursal();
+        sucursal.setNombre("Sucursal");
+        sucursal.setProductos(null);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.agregarSucursal("1", sucursal);
+
+        assertTrue(sucursal.getProductos().isEmpty());
+        assertEquals(0, franquicia.getTotalStock());
+    }
+
+    @Test
+    void agregarSucursal_conIdExistente_loRespeta() {
+        Franquicia franquicia = new Franquicia();
+        franquicia.setId("1");
+
+        Sucursal sucursal = new Sucursal();
+        sucursal.setId("existente");
+        sucursal.setNombre("Sucursal");
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.agregarSucursal("1", sucursal);
+
+        assertEquals("existente", sucursal.getId());
+        verify(idGenerator, never()).nextId();
+    }
+
+    @Test
+    void agregarProducto_sumaStockALosTotales() {
+        Franquicia franquicia = franquiciaConProducto(10);
+        Producto nuevo = new Producto();
+        nuevo.setNombre("Nuevo");
+        nuevo.setStock(5);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.agregarProducto("1", "s1", nuevo);
+
+        assertEquals(15, franquicia.getSucursales().get(0).getTotalStock());
+        assertEquals(15, franquicia.getTotalStock());
+    }
+
+    @Test
+    void actualizarStock_aplicaDeltaALosTotales() {
+        Franquicia franquicia = franquiciaConProducto(10);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.actualizarStock("1", "s1", "p1", 4);
+
+        assertEquals(4, franquicia.getSucursales().get(0).getTotalStock());
+        assertEquals(4, franquicia.getTotalStock());
+    }
+
+    @Test
+    void eliminarProducto_restaStockDeLosTotales() {
+        Franquicia franquicia = franquiciaConProducto(10);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.eliminarProducto("1", "s1", "p1");
+
+        assertEquals(0, franquicia.getSucursales().get(0).getTotalStock());
+        assertEquals(0, franquicia.getTotalStock());
+    }
+
+    @Test
+    void obtenerTotalesStock_devuelveContadoresSinCargarProductos() {
+        Franquicia franquicia = franquiciaConProducto(10);
+        when(franquiciaRepository.findTotalesStockById("1")).thenReturn(Optional.of(franquicia));
+
+        StockTotalesDTO totales = franquiciaService.obtenerTotalesStock("1");
+
+        assertEquals(10, totales.getTotalStock());
+        assertEquals(1, totales.getSucursales().size());
+        assertEquals(10, totales.getSucursales().get(0).getTotalStock());
+        verify(franquiciaRepository, never()).findById(any());
+    }
+
+    @Test
+    void agregarProducto_sinContadores_losRecalculaEnteros() {
+        Franquicia franquicia = franquiciaSinContadores(10);
+        Producto nuevo = new Producto();
+        nuevo.setNombre("Nuevo");
+        nuevo.setStock(5);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.agregarProducto("1", "s1", nuevo);
+
+        assertEquals(15, franquicia.getSucursales().get(0).getTotalStock());
+        assertEquals(15, franquicia.getTotalStock());
+    }
+
+    @Test
+    void eliminarProducto_sinContadores_noDejaTotalesNegativos() {
+        Franquicia franquicia = franquiciaSinContadores(10);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.eliminarProducto("1", "s1", "p1");
+
+        assertEquals(0, franquicia.getSucursales().get(0).getTotalStock());
+        assertEquals(0, franquicia.getTotalStock());
+    }
+
+    @Test
+    void actualizarStock_sinContadores_losRecalculaEnteros() {
+        Franquicia franquicia = franquiciaSinContadores(10);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.actualizarStock("1", "s1", "p1", 4);
+
+        assertEquals(4, franquicia.getSucursales().get(0).getTotalStock());
+        assertEquals(4, franquicia.getTotalStock());
+    }
+
+    @Test
+    void actualizarStock_documentoSinVersion_laInicializaAntesDeGuardar() {
+        Franquicia franquicia = franquiciaConProducto(10);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.actualizarStock("1", "s1", "p1", 4);
+
+        InOrder orden = inOrder(franquiciaRepository);
+        orden.verify(franquiciaRepository).inicializarVersion("1");
+        orden.verify(franquiciaRepository).save(franquicia);
+        assertEquals(0L, franquicia.getVersion());
+    }
+
+    @Test
+    void actualizarStock_documentoConVersion_guardaConEsaVersion() {
+        Franquicia franquicia = franquiciaConProducto(10);
+        franquicia.setVersion(3L);
+
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquicia));
+        when(franquiciaRepository.save(any())).thenReturn(franquicia);
+
+        franquiciaService.actualizarStock("1", "s1", "p1", 4);
+
+        verify(franquiciaRepository, never()).inicializarVersion(any());
+        assertEquals(3L, franquicia.getVersion());
+    }
+
+    @Test
+    void obtenerTotalesStock_sinContadores_losCalculaDeLaFranquiciaCompleta() {
+        Franquicia proyeccion = franquiciaSinContadores(10);
+        proyeccion.getSucursales().get(0).getProductos().clear();
+        when(franquiciaRepository.findTotalesStockById("1")).thenReturn(Optional.of(proyeccion));
+        when(franquiciaRepository.findById("1")).thenReturn(Optional.of(franquiciaSinContadores(10)));
+
+        StockTotalesDTO totales = franquiciaService.obtenerTotalesStock("1");
+
+        assertEquals(10, totales.getTotalStock());
+        assertEquals(10, totales.getSucursales().get(0).getTotalStock());
+        verify(franquiciaRepository, never()).save(any());
+    }
+
     @Test
     void agregarSucursal_conNombreVacio_lanzaExcepcion() {
         Sucursal sucursal = new Sucursal();
@@ -122,4 +358,33 @@ class FranquiciaServiceTest {
         assertEquals(404, response.getStatusCode().value());
         assertEquals("Franquicia no encontrada", response.getBody());
     }
+
+    /**
+     * Franquicia como la cargaría un documento guardado antes de existir los contadores.
+     */
+    private Franquicia franquiciaSinContadores(int stock) {
+        Franquicia franquicia = franquiciaConProducto(stock);
+        franquicia.setTotalStock(null);
+        franquicia.getSucursales().get(0).setTotalStock(null);
+        return franquicia;
+    }
+
+    private Franquicia franquiciaConProducto(int stock) {
+        Producto producto = new Producto();
+        producto.setId("p1");
+        producto.setNombre("Producto");
+        producto.setStock(stock);
+
+        Sucursal sucursal = new Sucursal();
+        sucursal.setId("s1");
+        sucursal.setNombre("Sucursal");
+        sucursal.getProductos().add(producto);
+        sucursal.setTotalStock((long) stock);
+
+        Franquicia franquicia = new Franquicia();
+        franquicia.setId("1");
+        franquicia.getSucursales().add(sucursal);
+        franquicia.setTotalStock((long) stock);
+        return franquicia;
+    }
 }
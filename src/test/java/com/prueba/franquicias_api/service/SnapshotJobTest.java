@@ -0,0 +1,103 @@
+package com.prueba.franquicias_api.service;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SnapshotJobTest {
+
+    private final SnapshotService real = new SnapshotService(mock(MongoOperations.class), 50,
+            DataSize.ofMegabytes(8), 2);
+    private final SnapshotService snapshotService = mock(SnapshotService.class);
+    private final SnapshotJob job = new SnapshotJob(snapshotService, mock(ApplicationContext.class));
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void sinOpciones_noHaceNada() throws Exception {
+        assertFalse(job.ejecutar(new DefaultApplicationArguments("--server.port=0")));
+        verifyNoInteractions(snapshotService);
+    }
+
+    @Test
+    void exportarEImportar_usanElFichero() throws Exception {
+        Path fichero = dir.resolve("franquicias.bson.gz");
+        when(snapshotService.exportar(any())).thenAnswer(inv ->
+                real.escribir(new Documentos(10), inv.getArgument(0)));
+        when(snapshotService.importar(any(Path.class))).thenAnswer(inv ->
+                real.importar((Path) inv.getArgument(0), lote -> { }));
+
+        assertTrue(job.ejecutar(new DefaultApplicationArguments("--snapshot.exportar=" + fichero)));
+        assertTrue(job.ejecutar(new DefaultApplicationArguments("--snapshot.importar=" + fichero)));
+
+        verify(snapshotService).importar(fichero);
+        assertFalse(Files.exists(dir.resolve("franquicias.bson.gz.part")));
+    }
+
+    @Test
+    void exportar_noSobrescribeUnFicheroExistente() throws Exception {
+        Path fichero = Files.writeString(dir.resolve("franquicias.bson.gz"), "previo");
+
+        assertThrows(IllegalArgumentException.class, () ->
+                job.ejecutar(new DefaultApplicationArguments("--snapshot.exportar=" + fichero)));
+        assertEquals("previo", Files.readString(fichero));
+        verifyNoInteractions(snapshotService);
+    }
+
+    @Test
+    void exportarFallida_noDejaFicheroConElNombreFinal() throws Exception {
+        Path fichero = dir.resolve("franquicias.bson.gz");
+        when(snapshotService.exportar(any())).thenThrow(new IllegalStateException("Mongo caído"));
+
+        assertThrows(IllegalStateException.class, () ->
+                job.ejecutar(new DefaultApplicationArguments("--snapshot.exportar=" + fichero)));
+        try (var ficheros = Files.list(dir)) {
+            assertEquals(0, ficheros.count());
+        }
+    }
+
+    /**
+     * Franquicias válidas generadas bajo demanda, como las entregaría un cursor.
+     */
+    private static final class Documentos implements Iterator<RawBsonDocument> {
+
+        private final int cantidad;
+        private int siguiente;
+
+        Documentos(int cantidad) {
+            this.cantidad = cantidad;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return siguiente < cantidad;
+        }
+
+        @Override
+        public RawBsonDocument next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BsonDocument documento = new BsonDocument("_id", new BsonString("f" + siguiente))
+                    .append("nombre", new BsonString("Franquicia " + siguiente++));
+            return new RawBsonDocument(documento, new BsonDocumentCodec());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.prueba.franquicias_api.service;
+
+import com.prueba.franquicias_api.dto.SnapshotResultadoDTO;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SnapshotServiceTest {
+
+    private final SnapshotService snapshotService = new SnapshotService(mock(MongoOperations.class), 3,
+            DataSize.ofMegabytes(8), 2);
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void escribirEImportar_recuperaTodosLosDocumentos() throws Exception {
+        List<RawBsonDocument> originales = documentos(10);
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+
+        SnapshotResultadoDTO exportado = snapshotService.escribir(originales.iterator(), Channels.newChannel(snapshot));
+
+        List<RawBsonDocument> importados = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> lotes = Collections.synchronizedList(new ArrayList<>());
+        SnapshotResultadoDTO importado = snapshotService.importar(
+                Channels.newChannel(new ByteArrayInputStream(snapshot.toByteArray())),
+                lote -> {
+                    lotes.add(lote.size());
+                    importados.addAll(lote);
+                });
+
+        assertEquals(10, exportado.getDocumentos());
+        assertEquals(exportado, importado);
+        assertEquals(Set.copyOf(originales), Set.copyOf(importados));
+        assertTrue(lotes.stream().allMatch(n -> n <= 3));
+    }
+
+    @Test
+    void importar_cierraElLoteAlLlegarAlLimiteDeBytes() throws Exception {
+        List<RawBsonDocument> originales = documentos(10);
+        long bytesDocumento = originales.get(0).getByteBuffer().remaining();
+        SnapshotService porBytes = new SnapshotService(mock(MongoOperations.class), 1000,
+                DataSize.ofBytes(2 * bytesDocumento), 2);
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        porBytes.escribir(originales.iterator(), Channels.newChannel(snapshot));
+
+        List<Integer> lotes = Collections.synchronizedList(new ArrayList<>());
+        porBytes.importar(Channels.newChannel(new ByteArrayInputStream(snapshot.toByteArray())),
+                lote -> lotes.add(lote.size()));
+
+        assertEquals(List.of(2, 2, 2, 2, 2), lotes);
+    }
+
+    @Test
+    void importar_propagaErrorDelInsertor() throws Exception {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshotService.escribir(documentos(10).iterator(), Channels.newChannel(snapshot));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                snapshotService.importar(Channels.newChannel(new ByteArrayInputStream(snapshot.toByteArray())),
+                        lote -> {
+                            throw new IllegalStateException("duplicado");
+                        }));
+        assertEquals("duplicado", error.getMessage());
+    }
+
+    @Test
+    void importar_snapshotTruncado_lanzaExcepcion() throws Exception {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshotService.escribir(documentos(1).iterator(), Channels.newChannel(snapshot));
+
+        ByteArrayOutputStream truncado = new ByteArrayOutputStream();
+        try (var gzip = new java.util.zip.GZIPOutputStream(truncado)) {
+            byte[] completo = new java.util.zip.GZIPInputStream(
+                    new ByteArrayInputStream(snapshot.toByteArray())).readAllBytes();
+            gzip.write(completo, 0, completo.length - 3);
+        }
+
+        assertThrows(EOFException.class, () ->
+                snapshotService.importar(Channels.newChannel(new ByteArrayInputStream(truncado.toByteArray())),
+                        lote -> { }));
+    }
+
+    @Test
+    void importar_documentoInvalidoAlFinal_noInsertaNingunLote() throws Exception {
+        BsonDocument producto = new BsonDocument("id", new BsonString("p1"))
+                .append("nombre", new BsonString("Producto"))
+                .append("stock", new BsonInt32(-5));
+        BsonDocument sucursal = new BsonDocument("id", new BsonString("s1"))
+                .append("nombre", new BsonString("Sucursal"))
+                .append("productos", new BsonArray(List.of(producto)));
+        BsonDocument franquicia = new BsonDocument("_id", new BsonString("f1"))
+                .append("nombre", new BsonString("Franquicia"))
+                .append("sucursales", new BsonArray(List.of(sucursal)));
+        List<RawBsonDocument> documentos = documentos(10);
+        documentos.add(new RawBsonDocument(franquicia, new BsonDocumentCodec()));
+        Path fichero = dir.resolve("franquicias.bson.gz");
+        snapshotService.escribir(documentos.iterator(), Channels.newChannel(Files.newOutputStream(fichero)));
+
+        List<RawBsonDocument> insertados = Collections.synchronizedList(new ArrayList<>());
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                snapshotService.importar(fichero, insertados::addAll));
+        assertTrue(error.getMessage().contains("Documento 10"));
+        assertTrue(error.getMessage().contains("stock"));
+        assertTrue(insertados.isEmpty());
+    }
+
+    @Test
+    void validar_franquiciaSinNombre_lanzaExcepcion() throws Exception {
+        BsonDocument franquicia = new BsonDocument("_id", new BsonString("f1"));
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshotService.escribir(List.of(new RawBsonDocument(franquicia, new BsonDocumentCodec())).iterator(),
+                Channels.newChannel(snapshot));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                snapshotService.validar(Channels.newChannel(new ByteArrayInputStream(snapshot.toByteArray()))));
+    }
+
+    @Test
+    void importarFichero_valido_insertaTodos() throws Exception {
+        Path fichero = dir.resolve("franquicias.bson.gz");
+        snapshotService.escribir(documentos(10).iterator(), Channels.newChannel(Files.newOutputStream(fichero)));
+
+        List<RawBsonDocument> insertados = Collections.synchronizedList(new ArrayList<>());
+        SnapshotResultadoDTO resultado = snapshotService.importar(fichero, insertados::addAll);
+
+        assertEquals(10, resultado.getDocumentos());
+        assertEquals(10, insertados.size());
+    }
+
+    private static List<RawBsonDocument> documentos(int cantidad) {
+        List<RawBsonDocument> documentos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            BsonDocument documento = new BsonDocument("_id", new BsonString("f" + i))
+                    .append("nombre", new BsonString("Franquicia " + i))
+                    .append("totalStock", new BsonInt32(i));
+            documentos.add(new RawBsonDocument(documento, new BsonDocumentCodec()));
+        }
+        return documentos;
+    }
+}
@@ -0,0 +1,158 @@
+package com.prueba.franquicias_api.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.prueba.franquicias_api.model.Franquicia;
+import com.prueba.franquicias_api.repository.MongoLease;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockTotalesReconciliadorTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private MongoLease lease;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @InjectMocks
+    private StockTotalesReconciliador reconciliador;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoOperations.getCollectionName(Franquicia.class)).thenReturn("franquicias");
+    }
+
+    @Test
+    void reconciliar_conTotalesCorrectos_noActualiza() {
+        Document franquicia = franquicia(10L, 10L, 4, 6);
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), eq("franquicias")))
+                .thenReturn(Stream.of(franquicia));
+
+        assertEquals(0, reconciliador.reconciliar());
+        verify(mongoOperations, never()).updateFirst(any(Query.class), any(Update.class), anyString());
+    }
+
+    @Test
+    void reconciliar_conDesviacion_corrigeTotales() {
+        Document franquicia = franquicia(7L, null, 4, 6);
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), eq("franquicias")))
+                .thenReturn(Stream.of(franquicia));
+        when(mongoOperations.updateFirst(any(Query.class), any(Update.class), eq("franquicias")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(1, reconciliador.reconciliar());
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).updateFirst(any(Query.class), update.capture(), eq("franquicias"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(10L, set.get("totalStock"));
+        assertEquals(10L, set.get("sucursales.0.totalStock"));
+        assertEquals(1L, set.get("version"));
+    }
+
+    @Test
+    void reconciliar_corrigeSoloSiLaVersionNoCambio() {
+        Document franquicia = franquicia(7L, 7L, 4, 6).append("version", 3L);
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), eq("franquicias")))
+                .thenReturn(Stream.of(franquicia));
+        when(mongoOperations.updateFirst(any(Query.class), any(Update.class), eq("franquicias")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        reconciliador.reconciliar();
+
+        ArgumentCaptor<Query> filtro = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).updateFirst(filtro.capture(), update.capture(), eq("franquicias"));
+        assertEquals(new Document("_id", "1").append("version", 3L), filtro.getValue().getQueryObject());
+        assertEquals(new Document("version", 1), update.getValue().getUpdateObject().get("$inc"));
+    }
+
+    @Test
+    void reconciliar_conEscrituraConcurrente_noCuentaComoCorregida() {
+        Document franquicia = franquicia(0L, 0L, 5);
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), eq("franquicias")))
+                .thenReturn(Stream.of(franquicia));
+        when(mongoOperations.updateFirst(any(Query.class), any(Update.class), eq("franquicias")))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertEquals(0, reconciliador.reconciliar());
+    }
+
+    @Test
+    void alArrancar_completaPendientesFueraDelHiloDeArranque() {
+        when(lease.adquirir(eq(StockTotalesReconciliador.LEASE), any(Duration.class))).thenReturn(true);
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), eq("franquicias")))
+                .thenReturn(Stream.of(franquicia(null, null, 4, 6)));
+        when(mongoOperations.updateFirst(any(Query.class), any(Update.class), eq("franquicias")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        reconciliador.alArrancar();
+
+        verifyNoInteractions(lease);
+        verify(mongoOperations, never()).stream(any(Query.class), any(), anyString());
+        ArgumentCaptor<Runnable> tarea = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(tarea.capture(), any(Instant.class));
+
+        tarea.getValue().run();
+
+        ArgumentCaptor<Query> filtro = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).stream(filtro.capture(), eq(Document.class), eq("franquicias"));
+        assertEquals(new Document("totalStock", new Document("$exists", false)), filtro.getValue().getQueryObject());
+        verify(mongoOperations).updateFirst(any(Query.class), any(Update.class), eq("franquicias"));
+    }
+
+    @Test
+    void programada_sinLease_noRecorreLaColeccion() {
+        when(lease.adquirir(eq(StockTotalesReconciliador.LEASE), any(Duration.class))).thenReturn(false);
+
+        reconciliador.programada();
+
+        verify(mongoOperations, never()).stream(any(Query.class), any(), anyString());
+    }
+
+    @Test
+    void programada_conLease_reconciliaTodas() {
+        when(lease.adquirir(eq(StockTotalesReconciliador.LEASE), any(Duration.class))).thenReturn(true);
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), eq("franquicias")))
+                .thenReturn(Stream.of(franquicia(10L, 10L, 4, 6)));
+
+        reconciliador.programada();
+
+        ArgumentCaptor<Query> filtro = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).stream(filtro.capture(), eq(Document.class), eq("franquicias"));
+        assertTrue(filtro.getValue().getQueryObject().isEmpty());
+    }
+
+    private Document franquicia(Long totalFranquicia, Long totalSucursal, int... stocks) {
+        List<Document> productos = new ArrayList<>();
+        for (int stock : stocks) {
+            productos.add(new Document("nombre", "Producto").append("stock", stock));
+        }
+        Document sucursal = new Document("id", "s1").append("productos", productos);
+        if (totalSucursal != null) {
+            sucursal.append("totalStock", totalSucursal);
+        }
+        return new Document("_id", "1")
+                .append("totalStock", totalFranquicia)
+                .append("sucursales", List.of(sucursal));
+    }
+}
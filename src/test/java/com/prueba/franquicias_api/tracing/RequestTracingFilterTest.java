@@ -0,0 +1,129 @@
+package com.prueba.franquicias_api.tracing;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class RequestTracingFilterTest {
+
+    private final MongoTracingCommandListener listener = new MongoTracingCommandListener();
+
+    @Test
+    void peticionLenta_seRegistraConDesglose(CapturedOutput salida) throws Exception {
+        RawBsonDocument comando = raw(new BsonDocument("find", new BsonString("franquicias")));
+        RawBsonDocument respuesta = raw(new BsonDocument("ok", new BsonInt32(1)));
+        RequestTracingFilter filter = new RequestTracingFilter(Duration.ZERO);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/franquicias"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    listener.commandStarted(inicio(comando));
+                    listener.commandSucceeded(evento(respuesta, 5));
+                    listener.commandStarted(inicio(comando));
+                    listener.commandSucceeded(evento(respuesta, 3));
+                    RequestTrace.actual().marcarFinHandler();
+                });
+
+        String log = salida.getOut();
+        assertTrue(log.contains("metodo=GET ruta=/api/franquicias estado=200"), log);
+        assertTrue(log.contains("mongoComandos=2 mongoMs=8.0"
+                + " mongoBytesEnviados=" + 2 * comando.getByteBuffer().remaining()
+                + " mongoBytesRecibidos=" + 2 * respuesta.getByteBuffer().remaining()), log);
+        assertNull(RequestTrace.actual());
+    }
+
+    @Test
+    void servicio_seMideDesdeElPreHandle(CapturedOutput salida) throws Exception {
+        RequestTracingFilter filter = new RequestTracingFilter(Duration.ZERO);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/franquicias"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    // Tiempo en filtros posteriores (p. ej. esperando turno en el limitador de concurrencia)
+                    pausa(50);
+                    new TracingHandlerInterceptor().preHandle(null, null, null);
+                    RequestTrace.actual().marcarFinHandler();
+                });
+
+        String log = salida.getOut();
+        assertTrue(campo(log, "previoMs") >= 50, log);
+        assertTrue(campo(log, "servicioMs") < 50, log);
+    }
+
+    @Test
+    void peticionRapida_noSeRegistra(CapturedOutput salida) throws Exception {
+        RequestTracingFilter filter = new RequestTracingFilter(Duration.ofMinutes(1));
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/franquicias"), new MockHttpServletResponse(),
+                (request, response) -> { });
+
+        assertFalse(salida.getOut().contains("mongoComandos="));
+    }
+
+    @Test
+    void comandoFueraDePeticion_seIgnora() {
+        assertDoesNotThrow(() -> listener.commandSucceeded(evento(new BsonDocument(), 1)));
+    }
+
+    @Test
+    void comandoConSecuenciaDeDocumentos_sumaLosDocumentos() {
+        RawBsonDocument franquicia = raw(new BsonDocument("nombre", new BsonString("Franquicia")));
+        BsonDocument insert = new BsonDocument("insert", new BsonString("franquicias"))
+                .append("documents", new BsonArray(List.of(franquicia, franquicia)));
+
+        assertEquals(2L * franquicia.getByteBuffer().remaining(), MongoTracingCommandListener.tamano(insert));
+    }
+
+    private static double campo(String log, String nombre) {
+        Matcher matcher = Pattern.compile(nombre + "=([0-9.]+)").matcher(log);
+        assertTrue(matcher.find(), log);
+        return Double.parseDouble(matcher.group(1));
+    }
+
+    private static void pausa(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static RawBsonDocument raw(BsonDocument documento) {
+        return new RawBsonDocument(documento, new BsonDocumentCodec());
+    }
+
+    private static CommandStartedEvent inicio(BsonDocument comando) {
+        ConnectionDescription conexion = new ConnectionDescription(
+                new ServerId(new ClusterId(), new ServerAddress()));
+        return new CommandStartedEvent(null, 1, 1, conexion, "franquiciaDB", "find", comando);
+    }
+
+    private static CommandSucceededEvent evento(BsonDocument respuesta, long millis) {
+        ConnectionDescription conexion = new ConnectionDescription(
+                new ServerId(new ClusterId(), new ServerAddress()));
+        return new CommandSucceededEvent(null, 1, 1, conexion, "franquiciaDB", "find", respuesta,
+                TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}